@@ -0,0 +1,84 @@
+package ru.yandex.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchAssemblyBenchmark {
+
+    @Param({"20", "500", "10000"})
+    public int size;
+
+    private long[] requested;
+    private long[] rowIds;
+    private Object[] rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        requested = random.longs(size, 1_000_000, 50_000_000).toArray();
+
+        rowIds = requested.clone();
+        for (int i = rowIds.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = rowIds[i];
+            rowIds[i] = rowIds[j];
+            rowIds[j] = tmp;
+        }
+        rows = new Object[size];
+        Arrays.setAll(rows, i -> "row-" + rowIds[i]);
+    }
+
+    @Benchmark
+    public List<Object> boxed() {
+        List<Long> ids = Arrays.stream(requested).boxed().toList();
+
+        Map<Long, Object> byId = new HashMap<>();
+        for (int i = 0; i < rowIds.length; i++) byId.put(rowIds[i], rows[i]);
+
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    @Benchmark
+    public List<Object> primitive() {
+        LongList ids = LongList.wrap(requested);
+
+        LongObjectMap<Object> byId = new LongObjectMap<>(ids.size());
+        for (int i = 0; i < rowIds.length; i++) byId.put(rowIds[i], rows[i]);
+
+        List<Object> out = new ArrayList<>(byId.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Object row = byId.get(ids.get(i));
+            if (row != null) out.add(row);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.yandex.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import ru.yandex.practicum.storage.FileSystemPostImageStorage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ImageResponseBenchmark {
+
+    private static final long POST_ID = 1L;
+    private static final MediaType IMAGE_PNG = MediaType.IMAGE_PNG;
+
+    @Param({"65536", "1048576", "5242880"})
+    public int size;
+
+    private Path dir;
+    private FileSystemPostImageStorage storage;
+
+    private final ByteArrayHttpMessageConverter bytesConverter = new ByteArrayHttpMessageConverter();
+    private final ResourceHttpMessageConverter resourceConverter = new ResourceHttpMessageConverter();
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("image-bench");
+        storage = new FileSystemPostImageStorage(dir.toString());
+
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        storage.save(POST_ID, bytes);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.delete(POST_ID);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void readAllBytes() throws IOException {
+        byte[] bytes = Files.readAllBytes(dir.resolve(Long.toString(POST_ID)));
+        bytesConverter.write(bytes, IMAGE_PNG, new DiscardingOutputMessage());
+    }
+
+    @Benchmark
+    public void streamResource() throws IOException {
+        Resource resource = storage.read(POST_ID);
+        resourceConverter.write(resource, IMAGE_PNG, new DiscardingOutputMessage());
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
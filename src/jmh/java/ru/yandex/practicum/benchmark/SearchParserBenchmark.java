@@ -0,0 +1,76 @@
+package ru.yandex.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.service.SearchParser;
+import ru.yandex.practicum.service.SearchParser.SearchQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchParserBenchmark {
+
+    @Param({"empty", "typical", "longTitle", "manyTags"})
+    public String input;
+
+    private String raw;
+
+    @Setup
+    public void setUp() {
+        raw = switch (input) {
+            case "empty" -> "";
+            case "typical" -> "spring boot tips #java #spring";
+            case "longTitle" -> "lorem ipsum dolor sit amet consectetur ".repeat(200);
+            case "manyTags" -> {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < 300; i++) sb.append("#Tag").append(i % 200).append(' ');
+                yield sb.toString();
+            }
+            default -> throw new IllegalArgumentException(input);
+        };
+    }
+
+    @Benchmark
+    public SearchQuery singlePass() {
+        return SearchParser.parse(raw);
+    }
+
+    @Benchmark
+    public SearchQuery regexSplit() {
+        String[] words = raw.split("\\s+");
+
+        List<String> tags = new ArrayList<>();
+        List<String> titleWords = new ArrayList<>();
+        for (String w : words) {
+            if (w.isEmpty()) continue;
+            if (w.startsWith("#")) {
+                if (w.length() == 1) continue;
+                tags.add(w.substring(1));
+            } else {
+                titleWords.add(w);
+            }
+        }
+
+        return new SearchQuery(
+            String.join(" ", titleWords),
+            tags.stream().map(String::toLowerCase).distinct().sorted().toList(),
+            titleWords.stream().map(String::toLowerCase).distinct().toList()
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.api.images;
 
 import jakarta.validation.constraints.Positive;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -35,11 +36,11 @@ public class PostImageController {
     }
 
     @GetMapping
-    public ResponseEntity<byte[]> getImage(@PathVariable @Positive long id) {
+    public ResponseEntity<Resource> getImage(@PathVariable @Positive long id) {
         ImagePayload payload = postImageService.getOrDefault(id);
 
         return ResponseEntity.ok()
             .contentType(MediaType.parseMediaType(payload.contentType()))
-            .body(payload.bytes());
+            .body(payload.resource());
     }
 }
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.api.internal;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.yandex.practicum.exception.forbidden.InvalidInternalTokenException;
+import ru.yandex.practicum.exception.not_found.InternalApiDisabledException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+public class InternalAccessInterceptor implements HandlerInterceptor {
+
+    public static final String TOKEN_HEADER = "X-Internal-Token";
+
+    private final byte[] token;
+
+    public InternalAccessInterceptor(String token) {
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (token == null) throw new InternalApiDisabledException(request.getRequestURI());
+
+        String presented = request.getHeader(TOKEN_HEADER);
+        if (presented == null || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            throw new InvalidInternalTokenException();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.api.internal;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.service.PostCache;
+import ru.yandex.practicum.service.PostCache.PostCacheStats;
+import ru.yandex.practicum.service.PostPageCache;
+import ru.yandex.practicum.service.PostPageCache.PageCacheStats;
+
+@RestController
+@RequestMapping("/internal/caches")
+public class InternalCacheController {
+
+    private final PostPageCache pageCache;
+    private final PostCache postCache;
+
+    public InternalCacheController(PostPageCache pageCache, PostCache postCache) {
+        this.pageCache = pageCache;
+        this.postCache = postCache;
+    }
+
+    @GetMapping("/post-pages")
+    public PageCacheStats postPages() {
+        return pageCache.stats();
+    }
+
+    @GetMapping("/posts")
+    public PostCacheStats posts() {
+        return postCache.stats();
+    }
+}
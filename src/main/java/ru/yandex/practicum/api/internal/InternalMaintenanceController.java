@@ -0,0 +1,68 @@
+package ru.yandex.practicum.api.internal;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.repository.posts.SearchIndexConsistencyReport;
+import ru.yandex.practicum.service.CommentService;
+import ru.yandex.practicum.service.PostService;
+import ru.yandex.practicum.service.TagService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/maintenance")
+public class InternalMaintenanceController {
+
+    private final CommentService commentService;
+    private final TagService tagService;
+    private final PostService postService;
+
+    public InternalMaintenanceController(CommentService commentService, TagService tagService, PostService postService) {
+        this.commentService = commentService;
+        this.tagService = tagService;
+        this.postService = postService;
+    }
+
+    @PostMapping("/comments-counts")
+    public RepairResult repairCommentsCounts() {
+        return new RepairResult(commentService.repairCommentsCounts());
+    }
+
+    @GetMapping("/tag-names")
+    public TagNamesCheck checkTagNames() {
+        return new TagNamesCheck(tagService.findPostsWithStaleTagNames());
+    }
+
+    @PostMapping("/tag-names")
+    public RepairResult repairTagNames() {
+        return new RepairResult(tagService.repairTagNames());
+    }
+
+    @GetMapping("/search-index")
+    public SearchIndexCheck checkSearchIndex() {
+        SearchIndexConsistencyReport report = postService.checkSearchIndex();
+        return new SearchIndexCheck(
+            report.consistent(),
+            report.indexedPosts(),
+            report.databasePosts(),
+            report.missingInIndex(),
+            report.staleInIndex(),
+            report.mismatched()
+        );
+    }
+
+    public record RepairResult(int repairedPosts) { }
+
+    public record SearchIndexCheck(
+        boolean consistent,
+        int indexedPosts,
+        int databasePosts,
+        List<Long> missingInIndex,
+        List<Long> staleInIndex,
+        List<Long> mismatched
+    ) { }
+
+    public record TagNamesCheck(List<Long> stalePosts) { }
+}
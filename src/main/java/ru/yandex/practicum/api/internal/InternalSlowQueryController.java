@@ -0,0 +1,34 @@
+package ru.yandex.practicum.api.internal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.repository.diagnostics.SlowQuery;
+import ru.yandex.practicum.repository.diagnostics.SlowQueryLog;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/slow-queries")
+public class InternalSlowQueryController {
+
+    private final SlowQueryLog slowQueries;
+
+    public InternalSlowQueryController(SlowQueryLog slowQueries) {
+        this.slowQueries = slowQueries;
+    }
+
+    @GetMapping
+    public List<SlowQuery> slowest() {
+        return slowQueries.slowest();
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear() {
+        slowQueries.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.api.likes;
+
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.api.likes.dto.PostLikesBatchRequest;
+import ru.yandex.practicum.api.likes.dto.PostLikesBatchResponse;
+import ru.yandex.practicum.domain.LikesBatch;
+import ru.yandex.practicum.service.PostService;
+
+@RestController
+@RequestMapping("/api/posts/likes")
+public class PostLikesBatchController {
+
+    private final PostService postService;
+
+    public PostLikesBatchController(PostService postService) {
+        this.postService = postService;
+    }
+
+    @PostMapping
+    public PostLikesBatchResponse addLikes(@Valid @RequestBody PostLikesBatchRequest request) {
+        LikesBatch batch = postService.addLikes(request.increments());
+        return new PostLikesBatchResponse(batch.likesCounts(), batch.unknownPostIds());
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.api.likes.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.Map;
+
+public record PostLikesBatchRequest(
+    @NotEmpty
+    @Size(max = 1_000)
+    Map<
+        @NotNull
+        @Positive
+        Long,
+        @NotNull
+        @Positive
+        @Max(100_000)
+        Integer
+    > increments
+) { }
@@ -0,0 +1,6 @@
+package ru.yandex.practicum.api.likes.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record PostLikesBatchResponse(Map<Long, Integer> likesCounts, List<Long> unknownPostIds) { }
@@ -3,17 +3,20 @@ package ru.yandex.practicum.api.posts;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.yandex.practicum.api.posts.dto.PostDto;
+import ru.yandex.practicum.api.posts.dto.PostsCursorPageResponse;
 import ru.yandex.practicum.api.posts.dto.PostsPageResponse;
 import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.domain.PostCursorPage;
 import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostPreview;
 
 @Mapper(componentModel = "spring")
 public interface PostApiMapper {
 
     PostDto toPostDto(Post post);
 
-    @Mapping(target = "text", expression = "java(PostApiMapper.previewText(post.text()))")
-    PostDto toPostPreviewDto(Post post);
+    @Mapping(target = "text", expression = "java(PostApiMapper.previewText(post.preview()))")
+    PostDto toPostPreviewDto(PostPreview post);
 
     default PostsPageResponse toPostsPageResponse(PostPage page) {
         return new PostsPageResponse(
@@ -22,7 +25,18 @@ public interface PostApiMapper {
                 .toList(),
             page.hasPrev(),
             page.hasNext(),
-            page.lastPage()
+            page.lastPage(),
+            page.approximateTotal()
+        );
+    }
+
+    default PostsCursorPageResponse toPostsCursorPageResponse(PostCursorPage page) {
+        return new PostsCursorPageResponse(
+            page.posts().stream()
+                .map(this::toPostPreviewDto)
+                .toList(),
+            page.hasNext(),
+            page.nextCursor()
         );
     }
 
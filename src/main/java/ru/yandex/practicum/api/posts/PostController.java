@@ -2,6 +2,7 @@ package ru.yandex.practicum.api.posts;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,14 +13,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.api.posts.dto.PostCreateRequest;
 import ru.yandex.practicum.api.posts.dto.PostDto;
 import ru.yandex.practicum.api.posts.dto.PostUpdateRequest;
+import ru.yandex.practicum.api.posts.dto.PostsCursorPageResponse;
 import ru.yandex.practicum.api.posts.dto.PostsPageResponse;
 import ru.yandex.practicum.api.IdChecks;
 import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.domain.PostCursorPage;
 import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
 import ru.yandex.practicum.service.PostService;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Validated
 @RestController
@@ -28,22 +38,49 @@ public class PostController {
 
     private final PostService postService;
     private final PostApiMapper mapper;
+    private final ObjectMapper objectMapper;
 
-    public PostController(PostService postService, PostApiMapper mapper) {
+    public PostController(PostService postService, PostApiMapper mapper, ObjectMapper objectMapper) {
         this.postService = postService;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
     public PostsPageResponse getPosts(
         @RequestParam String search,
+        @RequestParam(defaultValue = "TITLE") SearchMode mode,
+        @RequestParam(defaultValue = "NEWEST") PostSort sort,
         @RequestParam @Positive int pageNumber,
         @RequestParam @Positive int pageSize
     ) {
-        PostPage page = postService.search(search, pageNumber, pageSize);
+        PostPage page = postService.search(search, mode, sort, pageNumber, pageSize);
         return mapper.toPostsPageResponse(page);
     }
 
+    @GetMapping(params = "after")
+    public PostsCursorPageResponse getPostsAfter(
+        @RequestParam(defaultValue = "") String search,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "NEWEST") PostSort sort,
+        @RequestParam @Positive int pageSize
+    ) {
+        PostCursorPage page = postService.searchAfter(search, after, sort, pageSize);
+        return mapper.toPostsCursorPageResponse(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportPosts() {
+        return out -> postService.exportPosts(post -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(mapper.toPostDto(post)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     @GetMapping("/{id}")
     public PostDto getPost(@PathVariable @Positive long id) {
         Post post = postService.getPost(id);
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.api.posts.dto;
+
+import java.util.List;
+
+public record PostsCursorPageResponse(
+    List<PostDto> posts,
+    boolean hasNext,
+    String nextCursor
+) { }
@@ -6,5 +6,6 @@ public record PostsPageResponse(
     List<PostDto> posts,
     boolean hasPrev,
     boolean hasNext,
-    int lastPage
+    int lastPage,
+    boolean approximateTotal
 ) { }
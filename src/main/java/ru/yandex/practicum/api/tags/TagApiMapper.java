@@ -0,0 +1,12 @@
+package ru.yandex.practicum.api.tags;
+
+import org.mapstruct.Mapper;
+import ru.yandex.practicum.api.tags.dto.TagSuggestionDto;
+import ru.yandex.practicum.domain.TagSuggestion;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface TagApiMapper {
+    List<TagSuggestionDto> toDtos(List<TagSuggestion> suggestions);
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.api.tags;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.api.tags.dto.TagSuggestionDto;
+import ru.yandex.practicum.service.TagService;
+
+import java.util.List;
+
+@Validated
+@RestController
+@RequestMapping("/api/tags")
+public class TagController {
+
+    private final TagService tagService;
+    private final TagApiMapper mapper;
+
+    public TagController(TagService tagService, TagApiMapper mapper) {
+        this.tagService = tagService;
+        this.mapper = mapper;
+    }
+
+    @GetMapping("/suggest")
+    public List<TagSuggestionDto> suggest(
+        @RequestParam(defaultValue = "") String prefix,
+        @RequestParam(defaultValue = "10") @Positive @Max(50) int limit
+    ) {
+        return mapper.toDtos(tagService.suggest(prefix, limit));
+    }
+}
@@ -0,0 +1,6 @@
+package ru.yandex.practicum.api.tags.dto;
+
+public record TagSuggestionDto(
+    String name,
+    int postsCount
+) { }
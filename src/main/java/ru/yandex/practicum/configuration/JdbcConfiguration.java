@@ -0,0 +1,19 @@
+package ru.yandex.practicum.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.repository.diagnostics.SlowQueryLog;
+import ru.yandex.practicum.repository.diagnostics.TimedNamedParameterJdbcTemplate;
+
+@Configuration
+public class JdbcConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "diagnostics.slow-queries.enabled", havingValue = "true")
+    public NamedParameterJdbcTemplate namedParameterJdbcTemplate(JdbcTemplate jdbcTemplate, SlowQueryLog slowQueries) {
+        return new TimedNamedParameterJdbcTemplate(jdbcTemplate, slowQueries);
+    }
+}
@@ -1,12 +1,37 @@
 package ru.yandex.practicum.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.yandex.practicum.api.internal.InternalAccessInterceptor;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
+
+import java.util.Locale;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
 
+    private final String internalToken;
+    private final long asyncRequestTimeoutMs;
+
+    public WebConfiguration(
+        @Value("${internal.api.token:}") String internalToken,
+        @Value("${web.async.request-timeout-ms:600000}") long asyncRequestTimeoutMs
+    ) {
+        this.internalToken = internalToken;
+        this.asyncRequestTimeoutMs = asyncRequestTimeoutMs;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncRequestTimeoutMs);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -14,4 +39,16 @@ public class WebConfiguration implements WebMvcConfigurer {
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowedHeaders("*");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new InternalAccessInterceptor(internalToken))
+            .addPathPatterns("/internal/**");
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, PostSort.class, s -> PostSort.valueOf(s.trim().toUpperCase(Locale.ROOT)));
+        registry.addConverter(String.class, SearchMode.class, s -> SearchMode.valueOf(s.trim().toUpperCase(Locale.ROOT)));
+    }
+}
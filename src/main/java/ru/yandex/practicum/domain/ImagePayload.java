@@ -1,3 +1,5 @@
 package ru.yandex.practicum.domain;
 
-public record ImagePayload(String contentType, byte[] bytes) { }
+import org.springframework.core.io.Resource;
+
+public record ImagePayload(String contentType, Resource resource) { }
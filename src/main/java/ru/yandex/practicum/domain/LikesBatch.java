@@ -0,0 +1,6 @@
+package ru.yandex.practicum.domain;
+
+import java.util.List;
+import java.util.Map;
+
+public record LikesBatch(Map<Long, Integer> likesCounts, List<Long> unknownPostIds) { }
@@ -0,0 +1,10 @@
+package ru.yandex.practicum.domain;
+
+import java.util.List;
+
+public record PostCursorPage(
+    List<PostPreview> posts,
+    String nextCursor
+) {
+    public boolean hasNext() { return nextCursor != null; }
+}
@@ -3,11 +3,16 @@ package ru.yandex.practicum.domain;
 import java.util.List;
 
 public record PostPage(
-    List<Post> posts,
+    List<PostPreview> posts,
     int pageNumber,
     int pageSize,
-    int lastPage
+    int lastPage,
+    boolean approximateTotal
 ) {
+    public PostPage(List<PostPreview> posts, int pageNumber, int pageSize, int lastPage) {
+        this(posts, pageNumber, pageSize, lastPage, false);
+    }
+
     public boolean hasPrev() { return pageNumber > 1; }
     public boolean hasNext() { return pageNumber < lastPage; }
 }
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.domain;
+
+import java.util.List;
+
+public record PostPreview(
+    long id,
+    String title,
+    String preview,
+    int likesCount,
+    int commentsCount,
+    List<String> tags
+) { }
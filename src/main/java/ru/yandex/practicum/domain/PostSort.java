@@ -0,0 +1,9 @@
+package ru.yandex.practicum.domain;
+
+public enum PostSort {
+    NEWEST,
+    RANK,
+    LIKES,
+    COMMENTS,
+    UPDATED
+}
@@ -0,0 +1,6 @@
+package ru.yandex.practicum.domain;
+
+public enum SearchMode {
+    TITLE,
+    FULL_TEXT
+}
@@ -0,0 +1,3 @@
+package ru.yandex.practicum.domain;
+
+public record TagSuggestion(String name, int postsCount) { }
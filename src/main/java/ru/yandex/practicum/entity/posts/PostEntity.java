@@ -1,8 +1,12 @@
 package ru.yandex.practicum.entity.posts;
 
+import java.util.List;
+
 public record PostEntity(
     long id,
     String title,
     String text,
-    int likesCount
+    int likesCount,
+    int commentsCount,
+    List<String> tags
 ) { }
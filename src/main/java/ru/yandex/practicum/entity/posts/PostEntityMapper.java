@@ -2,10 +2,13 @@ package ru.yandex.practicum.entity.posts;
 
 import org.mapstruct.Mapper;
 import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.domain.PostPreview;
 
 import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface PostEntityMapper {
-    Post toPost(PostEntity post, int commentsCount, List<String> tags);
+    Post toPost(PostEntity post);
+    PostPreview toPreview(PostPreviewEntity post);
+    List<PostPreview> toPreviews(List<PostPreviewEntity> posts);
 }
\ No newline at end of file
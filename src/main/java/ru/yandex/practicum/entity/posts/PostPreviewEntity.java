@@ -0,0 +1,12 @@
+package ru.yandex.practicum.entity.posts;
+
+import java.util.List;
+
+public record PostPreviewEntity(
+    long id,
+    String title,
+    String preview,
+    int likesCount,
+    int commentsCount,
+    List<String> tags
+) { }
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.exception.forbidden;
+
+public class InvalidInternalTokenException extends ForbiddenException {
+    public InvalidInternalTokenException() {
+        super("Missing or invalid internal API token");
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.exception.not_found;
+
+public class InternalApiDisabledException extends NotFoundException {
+    public InternalApiDisabledException(String path) {
+        super("Not found: " + path);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.exception.not_found;
+
+public class SearchIndexDisabledException extends NotFoundException {
+    public SearchIndexDisabledException() {
+        super("In-memory search index is disabled (search.engine=memory)");
+    }
+}
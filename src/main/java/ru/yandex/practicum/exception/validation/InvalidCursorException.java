@@ -0,0 +1,7 @@
+package ru.yandex.practicum.exception.validation;
+
+public class InvalidCursorException extends ValidationException {
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Invalid cursor: " + cursor, cause);
+    }
+}
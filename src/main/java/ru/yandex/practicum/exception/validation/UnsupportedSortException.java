@@ -0,0 +1,10 @@
+package ru.yandex.practicum.exception.validation;
+
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
+
+public class UnsupportedSortException extends ValidationException {
+    public UnsupportedSortException(PostSort sort, SearchMode mode) {
+        super("Sort " + sort + " is not supported in " + mode + " search mode");
+    }
+}
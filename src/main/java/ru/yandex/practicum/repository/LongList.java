@@ -0,0 +1,77 @@
+package ru.yandex.practicum.repository;
+
+import java.util.Arrays;
+
+public final class LongList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] values;
+    private int size;
+
+    public LongList() {
+        this.values = EMPTY;
+    }
+
+    public LongList(int capacity) {
+        this.values = capacity == 0 ? EMPTY : new long[capacity];
+    }
+
+    private LongList(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    public static LongList of(long... values) {
+        return new LongList(values.clone(), values.length);
+    }
+
+    public static LongList wrap(long[] values) {
+        return new LongList(values, values.length);
+    }
+
+    public void add(long value) {
+        if (size == values.length) values = Arrays.copyOf(values, Math.max(8, size * 2));
+        values[size++] = value;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public LongList subList(int from, int to) {
+        if (from < 0 || to > size || from > to) throw new IndexOutOfBoundsException(from);
+        return new LongList(Arrays.copyOfRange(values, from, to), to - from);
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LongList other
+            && Arrays.equals(values, 0, size, other.values, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) h = 31 * h + Long.hashCode(values[i]);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
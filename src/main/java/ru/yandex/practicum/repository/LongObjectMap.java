@@ -0,0 +1,74 @@
+package ru.yandex.practicum.repository;
+
+import java.util.Objects;
+
+public final class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                @SuppressWarnings("unchecked")
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * LOAD_FACTOR) resize();
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) return (V) values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -3,7 +3,6 @@ package ru.yandex.practicum.repository.comments;
 import ru.yandex.practicum.domain.Comment;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 public interface CommentRepository {
@@ -14,6 +13,5 @@ public interface CommentRepository {
     void update(long postId, long commentId, String text);
     void delete(long postId, long commentId);
 
-    int countByPostId(long postId);
-    Map<Long, Integer> countByPostIds(List<Long> postIds);
+    int repairCommentsCounts();
 }
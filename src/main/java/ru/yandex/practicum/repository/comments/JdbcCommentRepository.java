@@ -1,13 +1,11 @@
 package ru.yandex.practicum.repository.comments;
 
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.domain.Comment;
 import ru.yandex.practicum.exception.not_found.CommentNotFoundException;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,9 +52,16 @@ public class JdbcCommentRepository implements CommentRepository {
     @Override
     public long insert(long postId, String text) {
         String sql = """
-            INSERT INTO comments (post_id, text)
-            VALUES (:postId, :text)
-            RETURNING id
+            WITH inserted AS (
+                INSERT INTO comments (post_id, text)
+                VALUES (:postId, :text)
+                RETURNING id
+            ), counted AS (
+                UPDATE posts
+                SET comments_count = comments_count + 1
+                WHERE id = :postId
+            )
+            SELECT id FROM inserted
             """;
         Long id = jdbc.queryForObject(sql, Map.of("postId", postId, "text", text), Long.class);
         if (id == null) throw new IllegalStateException("Failed to insert comment: id is null");
@@ -78,40 +83,37 @@ public class JdbcCommentRepository implements CommentRepository {
     @Override
     public void delete(long postId, long commentId) {
         String sql = """
-            DELETE FROM comments
-            WHERE post_id = :postId AND id = :commentId
+            WITH deleted AS (
+                DELETE FROM comments
+                WHERE post_id = :postId AND id = :commentId
+                RETURNING post_id
+            ), counted AS (
+                UPDATE posts
+                SET comments_count = comments_count - 1
+                WHERE id IN (SELECT post_id FROM deleted)
+            )
+            SELECT COUNT(*) FROM deleted
             """;
-        int updated = jdbc.update(sql, Map.of("postId", postId, "commentId", commentId));
-        if (updated == 0) throw new CommentNotFoundException(postId, commentId);
-    }
-
-    @Override
-    public int countByPostId(long postId) {
-        String sql = "SELECT COUNT(*) FROM comments WHERE post_id = :postId";
-        Integer count = jdbc.queryForObject(sql, Map.of("postId", postId), Integer.class);
-        return count == null ? 0 : count;
+        Integer deleted = jdbc.queryForObject(sql, Map.of("postId", postId, "commentId", commentId), Integer.class);
+        if (deleted == null || deleted == 0) throw new CommentNotFoundException(postId, commentId);
     }
 
     @Override
-    public Map<Long, Integer> countByPostIds(List<Long> postIds) {
-        if (postIds == null || postIds.isEmpty()) return Map.of();
+    public int repairCommentsCounts() {
+        jdbc.getJdbcTemplate().execute("LOCK TABLE comments IN SHARE MODE");
 
         String sql = """
-            SELECT post_id, COUNT(*) AS cnt
-            FROM comments
-            WHERE post_id IN (:ids)
-            GROUP BY post_id
+            WITH actual AS (
+                SELECT p.id, COUNT(c.id) AS cnt
+                FROM posts p
+                LEFT JOIN comments c ON c.post_id = p.id
+                GROUP BY p.id
+            )
+            UPDATE posts p
+            SET comments_count = a.cnt
+            FROM actual a
+            WHERE a.id = p.id AND p.comments_count <> a.cnt
             """;
-
-        MapSqlParameterSource params = new MapSqlParameterSource("ids", postIds);
-
-        return jdbc.query(sql, params, rs -> {
-            Map<Long, Integer> m = new HashMap<>();
-            while (rs.next()) m.put(
-                rs.getLong("post_id"),
-                rs.getInt("cnt")
-            );
-            return m;
-        });
+        return jdbc.update(sql, Map.of());
     }
 }
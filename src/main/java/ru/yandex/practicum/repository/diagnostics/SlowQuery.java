@@ -0,0 +1,17 @@
+package ru.yandex.practicum.repository.diagnostics;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SlowQuery(
+    long id,
+    String sql,
+    List<String> parameters,
+    long durationMicros,
+    Instant executedAt,
+    String plan
+) {
+    SlowQuery withPlan(String plan) {
+        return new SlowQuery(id, sql, parameters, durationMicros, executedAt, plan);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.repository.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Component
+public class SlowQueryLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int EXPLAIN_QUEUE = 16;
+    private static final Pattern DATA_MODIFYING = Pattern.compile("\\b(INSERT|UPDATE|DELETE|MERGE)\\b");
+    private static final Pattern STATEMENTS = Pattern.compile("(SELECT|WITH|INSERT|UPDATE|DELETE|MERGE)\\b");
+
+    private final NamedParameterJdbcTemplate explainJdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final long thresholdMicros;
+    private final long explainThresholdMicros;
+
+    private final int capacity;
+    private final PriorityQueue<SlowQuery> slowest;
+    private long sequence;
+
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(
+        1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(EXPLAIN_QUEUE),
+        Thread.ofPlatform().name("slow-query-explain").daemon().factory(),
+        new ThreadPoolExecutor.DiscardPolicy()
+    );
+
+    public SlowQueryLog(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${diagnostics.slow-queries.capacity:50}") int capacity,
+        @Value("${diagnostics.slow-queries.threshold-ms:50}") long thresholdMs,
+        @Value("${diagnostics.slow-queries.explain-threshold-ms:200}") long explainThresholdMs
+    ) {
+        this.explainJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.thresholdMicros = TimeUnit.MILLISECONDS.toMicros(thresholdMs);
+        this.explainThresholdMicros = TimeUnit.MILLISECONDS.toMicros(explainThresholdMs);
+        this.capacity = Math.max(1, capacity);
+        this.slowest = new PriorityQueue<>(this.capacity, Comparator.comparingLong(SlowQuery::durationMicros));
+    }
+
+    public boolean isSlow(long durationMicros) {
+        return durationMicros >= thresholdMicros;
+    }
+
+    public void record(String sql, SqlParameterSource params, List<String> boundValues, long durationMicros) {
+        if (!isSlow(durationMicros)) return;
+
+        SlowQuery entry;
+        synchronized (this) {
+            if (slowest.size() == capacity && durationMicros <= slowest.peek().durationMicros()) return;
+            if (slowest.size() == capacity) slowest.poll();
+            entry = new SlowQuery(++sequence, sql, boundValues, durationMicros, Instant.now(), null);
+            slowest.add(entry);
+        }
+
+        if (durationMicros >= explainThresholdMicros) {
+            String statement = explainStatement(sql);
+            if (statement != null) explainer.execute(() -> attachPlan(entry, explain(statement, params)));
+        }
+    }
+
+    public synchronized List<SlowQuery> slowest() {
+        List<SlowQuery> entries = new ArrayList<>(slowest);
+        entries.sort(Comparator.comparingLong(SlowQuery::durationMicros).reversed());
+        return entries;
+    }
+
+    public synchronized void clear() {
+        slowest.clear();
+    }
+
+    @Override
+    public void close() {
+        explainer.shutdownNow();
+    }
+
+    private String explain(String statement, SqlParameterSource params) {
+        try {
+            return readOnlyTx.execute(status -> {
+                status.setRollbackOnly();
+                List<String> lines = explainJdbc.queryForList(statement, params, String.class);
+                return String.join("\n", lines);
+            });
+        } catch (RuntimeException e) {
+            log.warn("EXPLAIN of slow query failed: {}", e.getMessage());
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private synchronized void attachPlan(SlowQuery entry, String plan) {
+        if (slowest.remove(entry)) slowest.add(entry.withPlan(plan));
+    }
+
+    static String explainStatement(String sql) {
+        String normalized = sql.stripLeading().toUpperCase(Locale.ROOT);
+        if (!STATEMENTS.matcher(normalized).lookingAt()) return null;
+        return DATA_MODIFYING.matcher(normalized).find() ? "EXPLAIN " + sql : "EXPLAIN (ANALYZE, BUFFERS) " + sql;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.yandex.practicum.repository.diagnostics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterDisposer;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.SqlArrayValue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TimedNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+
+    private final SlowQueryLog slowQueries;
+
+    public TimedNamedParameterJdbcTemplate(JdbcTemplate jdbcTemplate, SlowQueryLog slowQueries) {
+        super(jdbcTemplate);
+        this.slowQueries = slowQueries;
+    }
+
+    @Override
+    protected PreparedStatementCreator getPreparedStatementCreator(
+        String sql,
+        SqlParameterSource paramSource,
+        Consumer<PreparedStatementCreatorFactory> customizer
+    ) {
+        PreparedStatementCreator delegate = super.getPreparedStatementCreator(sql, paramSource, customizer);
+        return new TimedStatementCreator(delegate, sql, paramSource);
+    }
+
+    private List<String> render(String sql, SqlParameterSource params) {
+        Object[] values = NamedParameterUtils.buildValueArray(getParsedSql(sql), params, null);
+        List<String> rendered = new ArrayList<>(values.length);
+        for (Object value : values) rendered.add(render(value));
+        return Collections.unmodifiableList(rendered);
+    }
+
+    private static String render(Object value) {
+        if (value instanceof SqlParameterValue parameter) value = parameter.getValue();
+        if (value == null) return "NULL";
+        if (value instanceof SqlArrayValue) return "ARRAY";
+        if (value instanceof Object[] array) return Arrays.deepToString(array);
+        if (value instanceof Collection<?> collection) return collection.toString();
+        return String.valueOf(value);
+    }
+
+    private final class TimedStatementCreator implements PreparedStatementCreator, SqlProvider, ParameterDisposer {
+
+        private final PreparedStatementCreator delegate;
+        private final String sql;
+        private final SqlParameterSource params;
+        private long started;
+        private boolean running;
+
+        TimedStatementCreator(PreparedStatementCreator delegate, String sql, SqlParameterSource params) {
+            this.delegate = delegate;
+            this.sql = sql;
+            this.params = params;
+        }
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+            PreparedStatement ps = delegate.createPreparedStatement(con);
+            started = System.nanoTime();
+            running = true;
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public void cleanupParameters() {
+            if (delegate instanceof ParameterDisposer disposer) disposer.cleanupParameters();
+            if (!running) return;
+
+            running = false;
+            long micros = (System.nanoTime() - started) / 1_000;
+            if (slowQueries.isSlow(micros)) slowQueries.record(sql, params, render(sql, params), micros);
+        }
+    }
+}
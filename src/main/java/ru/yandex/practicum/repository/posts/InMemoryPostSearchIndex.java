@@ -0,0 +1,248 @@
+package ru.yandex.practicum.repository.posts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.tags.PostIdBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Repository
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory")
+public class InMemoryPostSearchIndex implements PostSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryPostSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate snapshotTx;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot snapshot = new Snapshot();
+    private List<Consumer<Snapshot>> pendingDuringRebuild;
+
+    public InMemoryPostSearchIndex(NamedParameterJdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setReadOnly(true);
+    }
+
+    @Override
+    public SearchHits search(String titleSubstring, List<String> tags, int offset, int limit) {
+        String needle = normalizeTitle(titleSubstring);
+
+        lock.readLock().lock();
+        try {
+            return snapshot.match(needle, tags == null ? List.of() : tags, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(long postId, String title, List<String> tags) {
+        String normalized = normalizeTitle(title);
+        List<String> copy = tags == null ? List.of() : List.copyOf(tags);
+        apply(s -> {
+            s.remove(postId);
+            s.add(postId, normalized, copy);
+        });
+    }
+
+    @Override
+    public void remove(long postId) {
+        apply(s -> s.remove(postId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        rebuild(() -> { });
+    }
+
+    synchronized void rebuild(Runnable duringLoad) {
+        bufferDeltas(new ArrayList<>());
+
+        Snapshot fresh = new Snapshot();
+        try {
+            loadDocuments().forEach((id, doc) -> fresh.add(id, doc.title(), doc.tags()));
+            duringLoad.run();
+        } catch (RuntimeException e) {
+            bufferDeltas(null);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(delta -> delta.accept(fresh));
+            pendingDuringRebuild = null;
+            snapshot = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Post search index rebuilt: {} posts, {} tags, {} title grams",
+            fresh.documents.size(), fresh.postsByTag.size(), fresh.postsByGram.size());
+    }
+
+    private void bufferDeltas(List<Consumer<Snapshot>> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Snapshot> delta) {
+        lock.writeLock().lock();
+        try {
+            delta.accept(snapshot);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public SearchIndexConsistencyReport checkConsistency() {
+        Map<Long, Document> expected = loadDocuments();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Document> actual = snapshot.documents;
+
+            List<Long> missing = new ArrayList<>();
+            List<Long> mismatched = new ArrayList<>();
+            expected.forEach((id, doc) -> {
+                Document indexed = actual.get(id);
+                if (indexed == null) missing.add(id);
+                else if (!indexed.equals(doc)) mismatched.add(id);
+            });
+
+            List<Long> stale = actual.keySet().stream()
+                .filter(id -> !expected.containsKey(id))
+                .sorted()
+                .toList();
+            missing.sort(Comparator.naturalOrder());
+            mismatched.sort(Comparator.naturalOrder());
+
+            return new SearchIndexConsistencyReport(actual.size(), expected.size(), missing, stale, mismatched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Document> loadDocuments() {
+        return snapshotTx.execute(status -> loadDocumentsInTransaction());
+    }
+
+    private Map<Long, Document> loadDocumentsInTransaction() {
+        Map<Long, String> titles = new HashMap<>();
+        jdbc.getJdbcTemplate().query(
+            "SELECT id, title FROM posts",
+            rs -> { titles.put(rs.getLong("id"), normalizeTitle(rs.getString("title"))); }
+        );
+
+        Map<Long, List<String>> tags = new HashMap<>();
+        jdbc.getJdbcTemplate().query(
+            """
+            SELECT pt.post_id, t.name
+            FROM post_tags pt
+            JOIN tags t ON t.id = pt.tag_id
+            ORDER BY pt.post_id, t.name
+            """,
+            rs -> { tags.computeIfAbsent(rs.getLong("post_id"), k -> new ArrayList<>()).add(rs.getString("name")); }
+        );
+
+        Map<Long, Document> documents = new HashMap<>(titles.size());
+        titles.forEach((id, title) -> documents.put(id, new Document(title, tags.getOrDefault(id, List.of()))));
+        return documents;
+    }
+
+    private static String normalizeTitle(String title) {
+        return title == null || title.isBlank() ? "" : title.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String s) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) grams.add(s.substring(i, i + GRAM));
+        return grams;
+    }
+
+    private record Document(String title, List<String> tags) { }
+
+    private static final class Snapshot {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final PostIdBitmap all = new PostIdBitmap();
+        private final Map<String, PostIdBitmap> postsByTag = new HashMap<>();
+        private final Map<String, PostIdBitmap> postsByGram = new HashMap<>();
+
+        void add(long postId, String title, List<String> tags) {
+            documents.put(postId, new Document(title, tags));
+            all.add(postId);
+            for (String tag : tags) postsByTag.computeIfAbsent(tag, k -> new PostIdBitmap()).add(postId);
+            for (String gram : grams(title)) postsByGram.computeIfAbsent(gram, k -> new PostIdBitmap()).add(postId);
+        }
+
+        void remove(long postId) {
+            Document doc = documents.remove(postId);
+            if (doc == null) return;
+            all.remove(postId);
+            for (String tag : doc.tags()) removePosting(postsByTag, tag, postId);
+            for (String gram : grams(doc.title())) removePosting(postsByGram, gram, postId);
+        }
+
+        SearchHits match(String needle, List<String> tags, int offset, int limit) {
+            List<PostIdBitmap> postings = new ArrayList<>();
+            for (String tag : tags) postings.add(postsByTag.get(tag));
+            for (String gram : grams(needle)) postings.add(postsByGram.get(gram));
+            if (postings.contains(null)) return SearchHits.EMPTY;
+
+            PostIdBitmap candidates = switch (postings.size()) {
+                case 0 -> all;
+                case 1 -> postings.getFirst();
+                default -> PostIdBitmap.and(postings);
+            };
+
+            if (needle.isEmpty()) {
+                return new SearchHits(LongList.wrap(candidates.toArrayDescending(offset, limit)), (int) candidates.cardinality());
+            }
+
+            LongList ids = new LongList(limit);
+            int total = 0;
+            for (long id : candidates.toArray()) {
+                if (!documents.get(id).title().contains(needle)) continue;
+                if (total >= offset && ids.size() < limit) ids.add(id);
+                total++;
+            }
+            return new SearchHits(ids, total);
+        }
+
+        private static void removePosting(Map<String, PostIdBitmap> postings, String key, long postId) {
+            PostIdBitmap ids = postings.get(key);
+            if (ids == null) return;
+            ids.remove(postId);
+            if (ids.isEmpty()) postings.remove(key);
+        }
+    }
+}
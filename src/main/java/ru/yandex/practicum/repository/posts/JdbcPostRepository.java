@@ -1,16 +1,31 @@
 package ru.yandex.practicum.repository.posts;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
 import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.domain.PostSort;
 import ru.yandex.practicum.entity.posts.PostEntity;
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
 import ru.yandex.practicum.exception.not_found.PostNotFoundException;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.LongObjectMap;
+import ru.yandex.practicum.repository.tags.TagDictionary;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Repository
 public class JdbcPostRepository implements PostRepository {
@@ -20,22 +35,64 @@ public class JdbcPostRepository implements PostRepository {
             rs.getLong("id"),
             rs.getString("title"),
             rs.getString("text"),
-            rs.getInt("likes_count")
+            rs.getInt("likes_count"),
+            rs.getInt("comments_count"),
+            List.of((String[]) rs.getArray("tag_names").getArray())
         );
 
+    private static final RowMapper<PostPreviewEntity> PREVIEW_ROW_MAPPER =
+        (rs, rowNum) -> new PostPreviewEntity(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("preview"),
+            rs.getInt("likes_count"),
+            rs.getInt("comments_count"),
+            List.of((String[]) rs.getArray("tag_names").getArray())
+        );
+
+    private static final RowMapper<SortedPostEntity> SORTED_POST_ROW_MAPPER =
+        (rs, rowNum) -> new SortedPostEntity(
+            PREVIEW_ROW_MAPPER.mapRow(rs, rowNum),
+            new PostSortKey(rs.getLong("sort_key"), rs.getLong("id"))
+        );
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*([0-9.]+)");
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final String TS_CONFIG = "simple";
+    private static final String SEARCH_VECTOR = "to_tsvector('" + TS_CONFIG + "', :title || ' ' || :text)";
+
+    private static final int LIKE_SHARDS = 16;
+    private static final String LIKES_TOTAL =
+        "p.likes_count + COALESCE((SELECT SUM(s.count) FROM post_like_shards s WHERE s.post_id = p.id), 0)";
+
+    private static final int PREVIEW_LENGTH = 129;
+    private static final String PREVIEW_COLUMNS = "p.id, p.title, left(p.text, " + PREVIEW_LENGTH + ") AS preview, "
+        + LIKES_TOTAL + " AS likes_count, p.comments_count, p.tag_names";
+    private static final String POST_COLUMNS =
+        "p.id, p.title, p.text, " + LIKES_TOTAL + " AS likes_count, p.comments_count, p.tag_names";
+
+    private static final String MATCHED_COLUMNS = "p.id, p.likes_count, p.comments_count, p.updated_at";
+
+    private static final String TITLE_MATCHES =
+        "lower(p.title) LIKE '%' || replace(replace(replace(lower(:ts), '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%'";
+
     private final NamedParameterJdbcTemplate jdbc;
+    private final TagDictionary tagDictionary;
 
-    public JdbcPostRepository(NamedParameterJdbcTemplate jdbc) {
+    public JdbcPostRepository(NamedParameterJdbcTemplate jdbc, TagDictionary tagDictionary) {
         this.jdbc = jdbc;
+        this.tagDictionary = tagDictionary;
     }
 
     @Override
     public long insert(String title, String text) {
         String sql = """
-            INSERT INTO posts (title, text)
-            VALUES (:title, :text)
+            INSERT INTO posts (title, text, search_vector)
+            VALUES (:title, :text, %s)
             RETURNING id
-            """;
+            """.formatted(SEARCH_VECTOR);
 
         Long id = jdbc.queryForObject(sql, Map.of("title", title, "text", text), Long.class);
         if (id == null) throw new IllegalStateException("Failed to insert post: id is null");
@@ -45,25 +102,94 @@ public class JdbcPostRepository implements PostRepository {
     @Override
     public Optional<PostEntity> findById(long id) {
         String sql = """
-            SELECT id, title, text, likes_count
-            FROM posts
-            WHERE id = :id
-            """;
+            SELECT %s
+            FROM posts p
+            WHERE p.id = :id
+            """.formatted(POST_COLUMNS);
 
         return jdbc.query(sql, Map.of("id", id), POST_ROW_MAPPER)
             .stream()
             .findFirst();
     }
 
+    @Override
+    public List<PostPreviewEntity> findPreviewsByIds(LongList ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+
+        String sql = """
+            SELECT %s
+            FROM posts p
+            WHERE p.id = ANY(CAST(:ids AS bigint[]))
+            """.formatted(PREVIEW_COLUMNS);
+
+        LongObjectMap<PostPreviewEntity> byId = new LongObjectMap<>(ids.size());
+        jdbc.query(sql, Map.of("ids", bigintArray(ids.toArray())), rs -> {
+            byId.put(rs.getLong("id"), PREVIEW_ROW_MAPPER.mapRow(rs, byId.size()));
+        });
+
+        List<PostPreviewEntity> posts = new ArrayList<>(byId.size());
+        for (int i = 0; i < ids.size(); i++) {
+            PostPreviewEntity post = byId.get(ids.get(i));
+            if (post != null) posts.add(post);
+        }
+        return posts;
+    }
+
+    @Override
+    public PostSearchPage searchPageByIds(String titleSubstring, long[] candidateIds, long offset, int limit) {
+        if (candidateIds.length == 0) return new PostSearchPage(List.of(), 0, 0);
+
+        String matchedSql = """
+            SELECT %s
+            FROM posts p
+            WHERE p.id = ANY(CAST(:ids AS bigint[])) AND %s
+            """.formatted(MATCHED_COLUMNS, titleCondition(titleSubstring));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", bigintArray(candidateIds))
+            .addValue("ts", titleSubstring);
+
+        return pageWithTotal(matchedSql, orderBy(PostSort.NEWEST, "%1$s"), params, offset, limit);
+    }
+
+    private static String bigintArray(long[] ids) {
+        StringBuilder sb = new StringBuilder(ids.length * 8 + 2).append('{');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(ids[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public void forEachForExport(Consumer<PostEntity> consumer) {
+        String sql = """
+            SELECT %s
+            FROM posts p
+            ORDER BY p.id
+            """.formatted(POST_COLUMNS);
+
+        PreparedStatementCreator statement = con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        };
+
+        jdbc.getJdbcTemplate().query(statement, rs -> {
+            consumer.accept(POST_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        });
+    }
+
     @Override
     public void update(long id, String title, String text) {
         String sql = """
             UPDATE posts
             SET title = :title,
                 text = :text,
+                search_vector = %s,
                 updated_at = now()
             WHERE id = :id
-            """;
+            """.formatted(SEARCH_VECTOR);
         int updated = jdbc.update(sql, Map.of("id", id, "title", title, "text", text));
         if (updated == 0) throw new PostNotFoundException(id);
     }
@@ -76,55 +202,226 @@ public class JdbcPostRepository implements PostRepository {
     }
 
     @Override
-    public List<PostEntity> searchPage(String titleSubstring, List<String> tags, int offset, int limit) {
+    public List<PostPreviewEntity> searchPage(String titleSubstring, List<String> tags, PostSort sort, int offset, int limit) {
         titleSubstring = titleSubstring == null || titleSubstring.isBlank() ? "" : titleSubstring;
 
         return tags == null || tags.isEmpty()
-            ? searchByTitle(titleSubstring, offset, limit)
-            : searchByTitleAndTags(titleSubstring, tags, offset, limit);
+            ? searchByTitle(titleSubstring, sort, offset, limit)
+            : searchByTitleAndTags(titleSubstring, tags, sort, offset, limit);
     }
 
-    private List<PostEntity> searchByTitle(String ts, int offset, int limit) {
+    private List<PostPreviewEntity> searchByTitle(String ts, PostSort sort, int offset, int limit) {
         String sql = """
-            SELECT p.id, p.title, p.text, p.likes_count
+            SELECT %s
             FROM posts p
-            WHERE (:ts = '' OR lower(p.title) LIKE '%' || lower(:ts) || '%')
-            ORDER BY p.id DESC
+            WHERE %s
+            ORDER BY %s
             OFFSET :offset
             LIMIT :limit
-            """;
+            """.formatted(PREVIEW_COLUMNS, titleCondition(ts), orderBy(sort, "p"));
 
         var params = new MapSqlParameterSource()
             .addValue("ts", ts)
             .addValue("offset", offset)
             .addValue("limit", limit);
 
-        return jdbc.query(sql, params, POST_ROW_MAPPER);
+        return jdbc.query(sql, params, PREVIEW_ROW_MAPPER);
     }
 
-    private List<PostEntity> searchByTitleAndTags(String ts, List<String> tags, int offset, int limit) {
+    private List<PostPreviewEntity> searchByTitleAndTags(String ts, List<String> tags, PostSort sort, int offset, int limit) {
         String sql = """
-            SELECT p.id, p.title, p.text, p.likes_count
+            SELECT %s
             FROM posts p
             JOIN post_tags pt ON pt.post_id = p.id
-            JOIN tags t ON t.id = pt.tag_id
-            WHERE (:ts = '' OR lower(p.title) LIKE '%' || lower(:ts) || '%')
-              AND t.name IN (:tags)
+            WHERE %s
+              AND pt.tag_id = ANY(:tagIds)
             GROUP BY p.id
             HAVING COUNT(*) = :tagCount
-            ORDER BY p.id DESC
+            ORDER BY %s
             OFFSET :offset
             LIMIT :limit
-            """;
+            """.formatted(PREVIEW_COLUMNS, titleCondition(ts), orderBy(sort, "p"));
 
         var params = new MapSqlParameterSource()
             .addValue("ts", ts)
-            .addValue("tags", tags)
-            .addValue("tagCount", tags.size())
+            .addValue("tagIds", tagIds(tags))
+            .addValue("tagCount", tags.stream().distinct().count())
             .addValue("offset", offset)
             .addValue("limit", limit);
 
-        return jdbc.query(sql, params, POST_ROW_MAPPER);
+        return jdbc.query(sql, params, PREVIEW_ROW_MAPPER);
+    }
+
+    @Override
+    public PostSearchPage searchPageWithTotal(
+        String titleSubstring,
+        List<String> tags,
+        PostSort sort,
+        long offset,
+        int limit
+    ) {
+        String ts = titleSubstring == null || titleSubstring.isBlank() ? "" : titleSubstring;
+        boolean byTags = tags != null && !tags.isEmpty();
+
+        String matchedSql = byTags
+            ? """
+              SELECT %s
+              FROM posts p
+              JOIN post_tags pt ON pt.post_id = p.id
+              WHERE %s
+                AND pt.tag_id = ANY(:tagIds)
+              GROUP BY p.id
+              HAVING COUNT(*) = :tagCount
+              """.formatted(MATCHED_COLUMNS, titleCondition(ts))
+            : """
+              SELECT %s
+              FROM posts p
+              WHERE %s
+              """.formatted(MATCHED_COLUMNS, titleCondition(ts));
+
+        var params = new MapSqlParameterSource("ts", ts);
+        if (byTags) params.addValue("tagIds", tagIds(tags)).addValue("tagCount", tags.stream().distinct().count());
+
+        return pageWithTotal(matchedSql, orderBy(sort, "%1$s"), params, offset, limit);
+    }
+
+    @Override
+    public PostSearchPage searchFullText(List<String> terms, List<String> tags, PostSort sort, long offset, int limit) {
+        boolean byTags = tags != null && !tags.isEmpty();
+        String termsCondition = terms.isEmpty() ? "TRUE" : "p.search_vector @@ plainto_tsquery('" + TS_CONFIG + "', :terms)";
+        String rank = terms.isEmpty() ? "0" : "ts_rank(p.search_vector, plainto_tsquery('" + TS_CONFIG + "', :terms))";
+
+        String matchedSql = byTags
+            ? """
+              SELECT %s, %s AS rank
+              FROM posts p
+              JOIN post_tags pt ON pt.post_id = p.id
+              WHERE %s
+                AND pt.tag_id = ANY(:tagIds)
+              GROUP BY p.id
+              HAVING COUNT(*) = :tagCount
+              """.formatted(MATCHED_COLUMNS, rank, termsCondition)
+            : """
+              SELECT %s, %s AS rank
+              FROM posts p
+              WHERE %s
+              """.formatted(MATCHED_COLUMNS, rank, termsCondition);
+
+        var params = new MapSqlParameterSource("terms", String.join(" ", terms));
+        if (byTags) params.addValue("tagIds", tagIds(tags)).addValue("tagCount", tags.stream().distinct().count());
+
+        String orderBy = sort == PostSort.RANK ? "%1$s.rank DESC, %1$s.id DESC" : orderBy(sort, "%1$s");
+        return pageWithTotal(matchedSql, orderBy, params, offset, limit);
+    }
+
+    private PostSearchPage pageWithTotal(
+        String matchedSql,
+        String orderBy,
+        MapSqlParameterSource params,
+        long offset,
+        int limit
+    ) {
+        String sql = """
+            WITH matched AS (
+            %s
+            ),
+            bounds AS (
+                SELECT COUNT(*) AS total,
+                       LEAST(:offset, GREATEST(COUNT(*) - 1, 0) / :limit * :limit) AS page_start
+                FROM matched
+            )
+            SELECT b.total, b.page_start, %s
+            FROM bounds b
+            LEFT JOIN LATERAL (
+                SELECT m.*
+                FROM matched m
+                ORDER BY %s
+                OFFSET b.page_start
+                LIMIT :limit
+            ) page ON TRUE
+            LEFT JOIN posts p ON p.id = page.id
+            ORDER BY %s
+            """.formatted(matchedSql, PREVIEW_COLUMNS, orderBy.formatted("m"), orderBy.formatted("page"));
+
+        params.addValue("offset", offset).addValue("limit", limit);
+
+        return jdbc.query(sql, params, rs -> {
+            List<PostPreviewEntity> posts = new ArrayList<>();
+            int total = 0;
+            long start = 0;
+            while (rs.next()) {
+                total = rs.getInt("total");
+                start = rs.getLong("page_start");
+                rs.getLong("id");
+                if (!rs.wasNull()) posts.add(PREVIEW_ROW_MAPPER.mapRow(rs, posts.size()));
+            }
+            return new PostSearchPage(posts, total, start);
+        });
+    }
+
+    @Override
+    public List<SortedPostEntity> searchAfter(
+        String titleSubstring,
+        List<String> tags,
+        PostSort sort,
+        PostSortKey after,
+        int limit
+    ) {
+        titleSubstring = titleSubstring == null || titleSubstring.isBlank() ? "" : titleSubstring;
+
+        return tags == null || tags.isEmpty()
+            ? searchByTitleAfter(titleSubstring, sort, after, limit)
+            : searchByTitleAndTagsAfter(titleSubstring, tags, sort, after, limit);
+    }
+
+    private List<SortedPostEntity> searchByTitleAfter(String ts, PostSort sort, PostSortKey after, int limit) {
+        String sql = """
+            SELECT %s, %s AS sort_key
+            FROM posts p
+            WHERE %s
+              AND %s
+            ORDER BY %s
+            LIMIT :limit
+            """.formatted(PREVIEW_COLUMNS, sortKey(sort), titleCondition(ts), seekCondition(sort, after), orderBy(sort, "p"));
+
+        var params = new MapSqlParameterSource()
+            .addValue("ts", ts)
+            .addValue("afterKey", after.value())
+            .addValue("afterId", after.id())
+            .addValue("limit", limit);
+
+        return jdbc.query(sql, params, SORTED_POST_ROW_MAPPER);
+    }
+
+    private List<SortedPostEntity> searchByTitleAndTagsAfter(
+        String ts,
+        List<String> tags,
+        PostSort sort,
+        PostSortKey after,
+        int limit
+    ) {
+        String sql = """
+            SELECT %s, %s AS sort_key
+            FROM posts p
+            JOIN post_tags pt ON pt.post_id = p.id
+            WHERE %s
+              AND pt.tag_id = ANY(:tagIds)
+              AND %s
+            GROUP BY p.id
+            HAVING COUNT(*) = :tagCount
+            ORDER BY %s
+            LIMIT :limit
+            """.formatted(PREVIEW_COLUMNS, sortKey(sort), titleCondition(ts), seekCondition(sort, after), orderBy(sort, "p"));
+
+        var params = new MapSqlParameterSource()
+            .addValue("ts", ts)
+            .addValue("tagIds", tagIds(tags))
+            .addValue("tagCount", tags.stream().distinct().count())
+            .addValue("afterKey", after.value())
+            .addValue("afterId", after.id())
+            .addValue("limit", limit);
+
+        return jdbc.query(sql, params, SORTED_POST_ROW_MAPPER);
     }
 
     @Override
@@ -140,8 +437,8 @@ public class JdbcPostRepository implements PostRepository {
         String sql = """
             SELECT COUNT(*)
             FROM posts p
-            WHERE (:ts = '' OR lower(p.title) LIKE '%' || lower(:ts) || '%')
-            """;
+            WHERE %s
+            """.formatted(titleCondition(ts));
 
         Integer c = jdbc.queryForObject(sql, Map.of("ts", ts), Integer.class);
         return c == null ? 0 : c;
@@ -154,42 +451,202 @@ public class JdbcPostRepository implements PostRepository {
                 SELECT p.id
                 FROM posts p
                 JOIN post_tags pt ON pt.post_id = p.id
-                JOIN tags t ON t.id = pt.tag_id
-                WHERE (:ts = '' OR lower(p.title) LIKE '%' || lower(:ts) || '%')
-                  AND t.name IN (:tags)
+                WHERE %s
+                  AND pt.tag_id = ANY(:tagIds)
                 GROUP BY p.id
                 HAVING COUNT(*) = :tagCount
             ) x
-            """;
+            """.formatted(titleCondition(ts));
 
         var params = new MapSqlParameterSource()
             .addValue("ts", ts)
-            .addValue("tags", tags)
+            .addValue("tagIds", tagIds(tags))
             .addValue("tagCount", tags.stream().distinct().count());
 
         Integer c = jdbc.queryForObject(sql, params, Integer.class);
         return c == null ? 0 : c;
     }
 
+    @Override
+    public long estimateCountBySearch(String titleSubstring, List<String> tags) {
+        String ts = titleSubstring == null || titleSubstring.isBlank() ? "" : titleSubstring;
+
+        String sql = tags == null || tags.isEmpty()
+            ? """
+              EXPLAIN (FORMAT JSON)
+              SELECT p.id
+              FROM posts p
+              WHERE %s
+              """.formatted(titleCondition(ts))
+            : """
+              EXPLAIN (FORMAT JSON)
+              SELECT p.id
+              FROM posts p
+              JOIN post_tags pt ON pt.post_id = p.id
+              WHERE %s
+                AND pt.tag_id = ANY(:tagIds)
+              GROUP BY p.id
+              HAVING COUNT(*) = :tagCount
+              """.formatted(titleCondition(ts));
+
+        var params = new MapSqlParameterSource("ts", ts);
+        if (tags != null && !tags.isEmpty()) {
+            params.addValue("tagIds", tagIds(tags)).addValue("tagCount", tags.stream().distinct().count());
+        }
+
+        String plan = jdbc.queryForObject(sql, params, String.class);
+        Matcher m = PLAN_ROWS.matcher(plan == null ? "" : plan);
+        return m.find() ? (long) Double.parseDouble(m.group(1)) : 0;
+    }
+
+    private SqlArrayValue tagIds(List<String> tags) {
+        Map<String, Long> ids = tagDictionary.idsOf(tags);
+        return new SqlArrayValue("bigint", tags.stream().distinct().map(t -> ids.getOrDefault(t, -1L)).toArray());
+    }
+
+    private static String titleCondition(String ts) {
+        return ts.isEmpty() ? "TRUE" : TITLE_MATCHES;
+    }
+
+    // LIKES and UPDATED order, seek and build cursor keys on the folded posts columns so that idx_posts_likes and
+    // idx_posts_updated apply. Likes still sitting in post_like_shards are already part of the displayed LIKES_TOTAL,
+    // but move the post in these orders only after rollupLikeShards. Order, seek and key read the same columns,
+    // so a cursor always continues exactly after the row it was taken from.
+    private static String orderBy(PostSort sort, String alias) {
+        return switch (sort) {
+            case LIKES -> "%1$s.likes_count DESC, %1$s.id DESC".formatted(alias);
+            case COMMENTS -> "%1$s.comments_count DESC, %1$s.id DESC".formatted(alias);
+            case UPDATED -> "%1$s.updated_at DESC, %1$s.id DESC".formatted(alias);
+            case NEWEST, RANK -> "%1$s.id DESC".formatted(alias);
+        };
+    }
+
+    private static String sortKey(PostSort sort) {
+        return switch (sort) {
+            case LIKES -> "p.likes_count";
+            case COMMENTS -> "p.comments_count";
+            case UPDATED -> "(EXTRACT(EPOCH FROM p.updated_at) * 1000000)::bigint";
+            case NEWEST, RANK -> "p.id";
+        };
+    }
+
+    private static String seekCondition(PostSort sort, PostSortKey after) {
+        if (after.isFirst()) return "TRUE";
+        return switch (sort) {
+            case LIKES -> "(p.likes_count, p.id) < (:afterKey, :afterId)";
+            case COMMENTS -> "(p.comments_count, p.id) < (:afterKey, :afterId)";
+            case UPDATED -> "(p.updated_at, p.id) < (TIMESTAMPTZ 'epoch' + :afterKey * INTERVAL '1 microsecond', :afterId)";
+            case NEWEST, RANK -> "p.id < :afterId";
+        };
+    }
+
     @Override
     public int incrementLikes(long id) {
         String sql = """
-            UPDATE posts
-            SET likes_count = likes_count + 1,
-                updated_at = now()
-            WHERE id = :id
-            RETURNING likes_count
-            """;
+            WITH bump AS (
+                INSERT INTO post_like_shards (post_id, shard, count, liked_at)
+                VALUES (:id, :shard, 1, now())
+                ON CONFLICT (post_id, shard) DO UPDATE
+                SET count = post_like_shards.count + 1,
+                    liked_at = GREATEST(post_like_shards.liked_at, EXCLUDED.liked_at)
+                RETURNING post_id
+            )
+            SELECT %s + 1
+            FROM bump
+            JOIN posts p ON p.id = bump.post_id
+            """.formatted(LIKES_TOTAL);
 
         try {
-            Integer newCount = jdbc.queryForObject(sql, Map.of("id", id), Integer.class);
+            Integer newCount = jdbc.queryForObject(
+                sql, Map.of("id", id, "shard", ThreadLocalRandom.current().nextInt(LIKE_SHARDS)), Integer.class
+            );
             if (newCount == null) throw new IllegalStateException("Failed to increment likes: likes_count is null");
             return newCount;
+        } catch (DataIntegrityViolationException e) {
+            throw new PostNotFoundException(id);
+        }
+    }
+
+    @Override
+    public int getLikesCount(long id) {
+        try {
+            Integer likes = jdbc.queryForObject(
+                "SELECT " + LIKES_TOTAL + " FROM posts p WHERE p.id = :id", Map.of("id", id), Integer.class
+            );
+            if (likes == null) throw new IllegalStateException("likes_count is null: id=" + id);
+            return likes;
         } catch (EmptyResultDataAccessException e) {
             throw new PostNotFoundException(id);
         }
     }
 
+    @Override
+    public List<PostLikesCount> getLikesCounts(LongList ids) {
+        if (ids.isEmpty()) return List.of();
+
+        return jdbc.query(
+            "SELECT p.id, " + LIKES_TOTAL + " AS likes_count FROM posts p WHERE p.id = ANY(CAST(:ids AS bigint[]))",
+            Map.of("ids", bigintArray(ids.toArray())),
+            (rs, rowNum) -> new PostLikesCount(rs.getLong("id"), rs.getInt("likes_count"))
+        );
+    }
+
+    @Override
+    public List<PostLikesCount> addLikes(LongList ids, LongList deltas) {
+        if (ids.isEmpty()) return List.of();
+
+        String sql = """
+            WITH deltas AS (
+                SELECT d.id, CAST(d.delta AS int) AS delta
+                FROM unnest(CAST(:ids AS bigint[]), CAST(:deltas AS bigint[])) AS d(id, delta)
+                JOIN posts p ON p.id = d.id
+                ORDER BY d.id
+                FOR KEY SHARE OF p
+            ),
+            bump AS (
+                INSERT INTO post_like_shards (post_id, shard, count, liked_at)
+                SELECT id, CAST(floor(random() * :shards) AS smallint), delta, now()
+                FROM deltas
+                ON CONFLICT (post_id, shard) DO UPDATE
+                SET count = post_like_shards.count + EXCLUDED.count,
+                    liked_at = GREATEST(post_like_shards.liked_at, EXCLUDED.liked_at)
+                RETURNING post_id
+            )
+            SELECT p.id, %s + d.delta AS likes_count
+            FROM bump
+            JOIN deltas d ON d.id = bump.post_id
+            JOIN posts p ON p.id = bump.post_id
+            """.formatted(LIKES_TOTAL);
+
+        return jdbc.query(
+            sql,
+            Map.of("ids", bigintArray(ids.toArray()), "deltas", bigintArray(deltas.toArray()), "shards", LIKE_SHARDS),
+            (rs, rowNum) -> new PostLikesCount(rs.getLong("id"), rs.getInt("likes_count"))
+        );
+    }
+
+    @Override
+    public int rollupLikeShards() {
+        String sql = """
+            WITH folded AS (
+                DELETE FROM post_like_shards
+                RETURNING post_id, count, liked_at
+            ),
+            totals AS (
+                SELECT post_id, SUM(count) AS likes, MAX(liked_at) AS liked_at
+                FROM folded
+                GROUP BY post_id
+            )
+            UPDATE posts p
+            SET likes_count = p.likes_count + t.likes,
+                updated_at = GREATEST(p.updated_at, t.liked_at)
+            FROM totals t
+            WHERE p.id = t.post_id
+            """;
+
+        return jdbc.update(sql, Map.of());
+    }
+
     @Override
     public Optional<String> findImageContentType(long id) {
         List<String> result = jdbc.query(
@@ -0,0 +1,3 @@
+package ru.yandex.practicum.repository.posts;
+
+public record PostLikesCount(long postId, int likesCount) { }
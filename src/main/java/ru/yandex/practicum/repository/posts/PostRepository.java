@@ -1,20 +1,35 @@
 package ru.yandex.practicum.repository.posts;
 
+import ru.yandex.practicum.domain.PostSort;
 import ru.yandex.practicum.entity.posts.PostEntity;
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
+import ru.yandex.practicum.repository.LongList;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PostRepository {
     long insert(String title, String text);
     Optional<PostEntity> findById(long id);
+    List<PostPreviewEntity> findPreviewsByIds(LongList ids);
     void update(long id, String title, String text);
     void deleteById(long id);
+    void forEachForExport(Consumer<PostEntity> consumer);
 
-    List<PostEntity> searchPage(String titleSubstring, List<String> tags, int offset, int limit);
+    List<PostPreviewEntity> searchPage(String titleSubstring, List<String> tags, PostSort sort, int offset, int limit);
     int countBySearch(String titleSubstring, List<String> tags);
+    PostSearchPage searchPageWithTotal(String titleSubstring, List<String> tags, PostSort sort, long offset, int limit);
+    PostSearchPage searchFullText(List<String> terms, List<String> tags, PostSort sort, long offset, int limit);
+    long estimateCountBySearch(String titleSubstring, List<String> tags);
+    List<SortedPostEntity> searchAfter(String titleSubstring, List<String> tags, PostSort sort, PostSortKey after, int limit);
+    PostSearchPage searchPageByIds(String titleSubstring, long[] candidateIds, long offset, int limit);
 
     int incrementLikes(long id);
+    int getLikesCount(long id);
+    List<PostLikesCount> getLikesCounts(LongList ids);
+    List<PostLikesCount> addLikes(LongList ids, LongList deltas);
+    int rollupLikeShards();
 
     Optional<String> findImageContentType(long id);
     void updateImageContentType(long id, String type);
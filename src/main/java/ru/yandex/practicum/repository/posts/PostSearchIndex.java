@@ -0,0 +1,13 @@
+package ru.yandex.practicum.repository.posts;
+
+import java.util.List;
+
+public interface PostSearchIndex {
+    SearchHits search(String titleSubstring, List<String> tags, int offset, int limit);
+
+    void index(long postId, String title, List<String> tags);
+    void remove(long postId);
+
+    void rebuild();
+    SearchIndexConsistencyReport checkConsistency();
+}
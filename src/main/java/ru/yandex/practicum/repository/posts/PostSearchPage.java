@@ -0,0 +1,7 @@
+package ru.yandex.practicum.repository.posts;
+
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
+
+import java.util.List;
+
+public record PostSearchPage(List<PostPreviewEntity> posts, int total, long offset) { }
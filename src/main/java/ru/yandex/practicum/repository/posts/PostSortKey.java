@@ -0,0 +1,10 @@
+package ru.yandex.practicum.repository.posts;
+
+public record PostSortKey(long value, long id) {
+
+    public static final PostSortKey FIRST = new PostSortKey(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public boolean isFirst() {
+        return equals(FIRST);
+    }
+}
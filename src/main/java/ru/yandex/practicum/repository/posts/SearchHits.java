@@ -0,0 +1,7 @@
+package ru.yandex.practicum.repository.posts;
+
+import ru.yandex.practicum.repository.LongList;
+
+public record SearchHits(LongList ids, int total) {
+    public static final SearchHits EMPTY = new SearchHits(new LongList(), 0);
+}
@@ -0,0 +1,15 @@
+package ru.yandex.practicum.repository.posts;
+
+import java.util.List;
+
+public record SearchIndexConsistencyReport(
+    int indexedPosts,
+    int databasePosts,
+    List<Long> missingInIndex,
+    List<Long> staleInIndex,
+    List<Long> mismatched
+) {
+    public boolean consistent() {
+        return missingInIndex.isEmpty() && staleInIndex.isEmpty() && mismatched.isEmpty();
+    }
+}
@@ -0,0 +1,5 @@
+package ru.yandex.practicum.repository.posts;
+
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
+
+public record SortedPostEntity(PostPreviewEntity post, PostSortKey key) { }
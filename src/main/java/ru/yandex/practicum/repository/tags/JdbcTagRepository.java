@@ -1,14 +1,14 @@
 package ru.yandex.practicum.repository.tags;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.SqlArrayValue;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.repository.AfterCommit;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -16,77 +16,83 @@ import java.util.Objects;
 @Repository
 public class JdbcTagRepository implements TagRepository {
 
-    private final NamedParameterJdbcTemplate jdbc;
+    private static final String LINKED_TAG_NAMES = """
+        SELECT COALESCE(array_agg(t.name ORDER BY t.name COLLATE "C"), '{}')
+        FROM post_tags pt
+        JOIN tags t ON t.id = pt.tag_id
+        WHERE pt.post_id = p.id
+        """;
 
-    public JdbcTagRepository(NamedParameterJdbcTemplate jdbc) {
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TagDictionary dictionary;
+    private final ObjectProvider<TagLinkListener> listeners;
+
+    public JdbcTagRepository(
+        NamedParameterJdbcTemplate jdbc,
+        TagDictionary dictionary,
+        ObjectProvider<TagLinkListener> listeners
+    ) {
         this.jdbc = jdbc;
-    }
-
-    @Override
-    public List<String> findTagsByPostId(long postId) {
-        return findTagsByPostIds(List.of(postId)).getOrDefault(postId, List.of());
-    }
-
-    @Override
-    public Map<Long, List<String>> findTagsByPostIds(List<Long> postIds) {
-        if (postIds == null || postIds.isEmpty()) return Map.of();
-
-        String sql = """
-            SELECT pt.post_id, t.name
-            FROM post_tags pt
-            JOIN tags t ON t.id = pt.tag_id
-            WHERE pt.post_id IN (:ids)
-            ORDER BY pt.post_id, t.name
-            """;
-
-        MapSqlParameterSource params = new MapSqlParameterSource("ids", postIds);
-
-        return jdbc.query(sql, params, rs -> {
-            Map<Long, List<String>> result = new HashMap<>();
-            while (rs.next()) {
-                long postId = rs.getLong("post_id");
-                String name = rs.getString("name");
-                result.computeIfAbsent(postId, k -> new ArrayList<>()).add(name);
-            }
-            return result;
-        });
+        this.dictionary = dictionary;
+        this.listeners = listeners;
     }
 
     @Override
     @Transactional(propagation = Propagation.MANDATORY)
     public void replaceTags(long postId, List<String> tags) {
-        tags = normalizeTags(tags);
+        List<String> newTags = normalizeTags(tags);
 
-        jdbc.update(
-            "DELETE FROM post_tags WHERE post_id = :postId",
-            Map.of("postId", postId)
+        List<Long> oldTagIds = jdbc.queryForList(
+            "DELETE FROM post_tags WHERE post_id = :postId RETURNING tag_id",
+            Map.of("postId", postId),
+            Long.class
         );
+        List<String> oldTags = dictionary.namesOf(oldTagIds).values().stream().sorted().toList();
+        AfterCommit.run(() -> listeners.orderedStream().forEach(l -> l.onTagsReplaced(postId, oldTags, newTags)));
 
-        if (tags.isEmpty()) return;
+        jdbc.update(
+            "UPDATE posts SET tag_names = :names WHERE id = :postId",
+            new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("names", new SqlArrayValue("text", newTags.toArray()))
+        );
 
-        SqlArrayValue tagsSqlArray = new SqlArrayValue("text", tags.toArray());
-        MapSqlParameterSource params = new MapSqlParameterSource()
-            .addValue("postId", postId)
-            .addValue("names", tags)
-            .addValue("namesArray", tagsSqlArray);
+        if (newTags.isEmpty()) return;
 
-        String upsertTagsSql = """
-            INSERT INTO tags (name)
-            SELECT unnest(:namesArray) AS name
-            ON CONFLICT (name) DO NOTHING
-            """;
-        jdbc.update(upsertTagsSql, params);
+        Map<String, Long> ids = dictionary.createIfAbsent(newTags);
 
         String linkSql = """
             INSERT INTO post_tags (post_id, tag_id)
-            SELECT :postId, t.id
-            FROM tags t
-            WHERE t.name IN (:names)
+            SELECT :postId, unnest(:tagIds)
             ON CONFLICT DO NOTHING
             """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("postId", postId)
+            .addValue("tagIds", new SqlArrayValue("bigint", newTags.stream().map(ids::get).toArray()));
         jdbc.update(linkSql, params);
     }
 
+    @Override
+    public List<Long> findPostsWithStaleTagNames() {
+        String sql = """
+            SELECT p.id
+            FROM posts p
+            WHERE p.tag_names IS DISTINCT FROM (%s)
+            ORDER BY p.id
+            """.formatted(LINKED_TAG_NAMES);
+        return jdbc.queryForList(sql, Map.of(), Long.class);
+    }
+
+    @Override
+    public int repairTagNames() {
+        String sql = """
+            UPDATE posts p
+            SET tag_names = (%1$s)
+            WHERE p.tag_names IS DISTINCT FROM (%1$s)
+            """.formatted(LINKED_TAG_NAMES);
+        return jdbc.update(sql, Map.of());
+    }
+
     private static List<String> normalizeTags(List<String> tags) {
         if (tags == null) return List.of();
         return tags.stream()
@@ -0,0 +1,370 @@
+package ru.yandex.practicum.repository.tags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public final class PostIdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private long[] keys = new long[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    public boolean add(long id) {
+        long key = id >>> 16;
+        char low = (char) id;
+
+        int i = Arrays.binarySearch(keys, 0, size, key);
+        if (i < 0) {
+            i = -i - 1;
+            insertAt(i, key, new ArrayContainer());
+        }
+
+        Container c = containers[i];
+        if (c.contains(low)) return false;
+        containers[i] = c.add(low);
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int i = Arrays.binarySearch(keys, 0, size, id >>> 16);
+        if (i < 0) return false;
+
+        Container c = containers[i];
+        char low = (char) id;
+        if (!c.contains(low)) return false;
+
+        Container updated = c.remove(low);
+        if (updated.cardinality() == 0) removeAt(i);
+        else containers[i] = updated;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        int i = Arrays.binarySearch(keys, 0, size, id >>> 16);
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += containers[i].cardinality();
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public PostIdBitmap copy() {
+        PostIdBitmap copy = new PostIdBitmap();
+        copy.keys = Arrays.copyOf(keys, size);
+        copy.containers = new Container[size];
+        for (int i = 0; i < size; i++) copy.containers[i] = containers[i].copy();
+        copy.size = size;
+        return copy;
+    }
+
+    public static PostIdBitmap and(List<PostIdBitmap> bitmaps) {
+        if (bitmaps.isEmpty()) return new PostIdBitmap();
+
+        List<PostIdBitmap> byCardinality = new ArrayList<>(bitmaps);
+        byCardinality.sort(Comparator.comparingLong(PostIdBitmap::cardinality));
+
+        PostIdBitmap result = byCardinality.getFirst().copy();
+        for (int i = 1; i < byCardinality.size() && !result.isEmpty(); i++) {
+            result = result.and(byCardinality.get(i));
+        }
+        return result;
+    }
+
+    public PostIdBitmap and(PostIdBitmap other) {
+        PostIdBitmap result = new PostIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            long a = keys[i];
+            long b = other.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) result.insertAt(result.size, a, c);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public long[] toArray() {
+        return toArrayDescending(0, Integer.MAX_VALUE);
+    }
+
+    public long[] toArrayDescending(long offset, int limit) {
+        long[] out = new long[(int) Math.max(0, Math.min(limit, cardinality() - offset))];
+        int filled = 0;
+        long toSkip = offset;
+
+        for (int i = size - 1; i >= 0 && filled < out.length; i--) {
+            Container c = containers[i];
+            if (toSkip >= c.cardinality()) {
+                toSkip -= c.cardinality();
+                continue;
+            }
+            filled = c.fillDescending(keys[i] << 16, (int) toSkip, out, filled);
+            toSkip = 0;
+        }
+        return out;
+    }
+
+    public long sizeInBytes() {
+        long bytes = 16 + 8L * keys.length + 8L * containers.length;
+        for (int i = 0; i < size; i++) bytes += containers[i].sizeInBytes();
+        return bytes;
+    }
+
+    public void trim() {
+        keys = Arrays.copyOf(keys, size);
+        containers = Arrays.copyOf(containers, size);
+        for (int i = 0; i < size; i++) containers[i] = containers[i].trim();
+    }
+
+    private void insertAt(int i, long key, Container c) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private sealed interface Container permits ArrayContainer, BitmapContainer {
+        boolean contains(char low);
+        Container add(char low);
+        Container remove(char low);
+        Container and(Container other);
+        int cardinality();
+        int fillDescending(long base, int skip, long[] out, int from);
+        Container copy();
+        Container trim();
+        long sizeInBytes();
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        public Container add(char low) {
+            if (cardinality == ARRAY_MAX) return toBitmap().add(low);
+
+            int i = -Arrays.binarySearch(values, 0, cardinality, low) - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        public Container and(Container other) {
+            char[] out = new char[Math.min(cardinality, other.cardinality())];
+            int n = 0;
+            if (other instanceof ArrayContainer a) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < a.cardinality) {
+                    if (values[i] < a.values[j]) i++;
+                    else if (values[i] > a.values[j]) j++;
+                    else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public int fillDescending(long base, int skip, long[] out, int from) {
+            for (int i = cardinality - 1 - skip; i >= 0 && from < out.length; i--) {
+                out[from++] = base | values[i];
+            }
+            return from;
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        public Container trim() {
+            values = Arrays.copyOf(values, cardinality);
+            return this;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + 4 + 16 + 2L * values.length;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) bitmap.add(values[i]);
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public Container add(char low) {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            words[low >>> 6] = after;
+            if (before != after) cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            words[low >>> 6] &= ~(1L << low);
+            cardinality--;
+            return cardinality <= ARRAY_MAX ? toArrayContainer() : this;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+
+            BitmapContainer b = (BitmapContainer) other;
+            long[] out = new long[BITMAP_WORDS];
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                out[i] = words[i] & b.words[i];
+                n += Long.bitCount(out[i]);
+            }
+            BitmapContainer result = new BitmapContainer(out, n);
+            return n <= ARRAY_MAX ? result.toArrayContainer() : result;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public int fillDescending(long base, int skip, long[] out, int from) {
+            for (int w = BITMAP_WORDS - 1; w >= 0 && from < out.length; w--) {
+                long word = words[w];
+                while (word != 0 && from < out.length) {
+                    int bit = 63 - Long.numberOfLeadingZeros(word);
+                    word &= ~(1L << bit);
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    out[from++] = base | ((long) w << 6) | bit;
+                }
+            }
+            return from;
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        public Container trim() {
+            return this;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + 4 + 16 + 8L * BITMAP_WORDS;
+        }
+
+        private ArrayContainer toArrayContainer() {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    values[n++] = (char) ((w << 6) | bit);
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
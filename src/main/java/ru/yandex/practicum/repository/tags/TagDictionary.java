@@ -0,0 +1,137 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.repository.AfterCommit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+public class TagDictionary {
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final int maxUnknownNames;
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final Set<String> unknownNames = ConcurrentHashMap.newKeySet();
+
+    public TagDictionary(
+        NamedParameterJdbcTemplate jdbc,
+        @Value("${cache.tags.max-unknown-names:10000}") int maxUnknownNames
+    ) {
+        this.jdbc = jdbc;
+        this.maxUnknownNames = maxUnknownNames;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbc.getJdbcTemplate().query(
+            "SELECT id, name FROM tags",
+            rs -> { put(rs.getLong("id"), rs.getString("name")); }
+        );
+    }
+
+    public Map<String, Long> idsOf(Collection<String> names) {
+        Map<String, Long> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Long id = idsByName.get(name);
+            if (id != null) result.put(name, id);
+            else if (!unknownNames.contains(name)) missing.add(name);
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<Long, String> loaded = query(
+            "SELECT id, name FROM tags WHERE name = ANY(:values)",
+            new SqlArrayValue("text", missing.toArray())
+        );
+        loaded.forEach((id, name) -> result.put(name, id));
+        for (String name : missing) {
+            if (!result.containsKey(name)) rememberUnknown(name);
+        }
+        rememberAfterCommit(loaded);
+        return result;
+    }
+
+    public Map<Long, String> namesOf(Collection<Long> ids) {
+        Map<Long, String> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            String name = namesById.get(id);
+            if (name != null) result.put(id, name);
+            else missing.add(id);
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<Long, String> loaded = query(
+            "SELECT id, name FROM tags WHERE id = ANY(:values)",
+            new SqlArrayValue("bigint", missing.toArray())
+        );
+        result.putAll(loaded);
+        rememberAfterCommit(loaded);
+        return result;
+    }
+
+    public Map<String, Long> createIfAbsent(List<String> names) {
+        Map<String, Long> known = idsOf(names);
+        if (known.size() == names.size()) return known;
+
+        List<String> created = names.stream().filter(n -> !known.containsKey(n)).toList();
+        created.forEach(unknownNames::remove);
+        Map<Long, String> inserted = query(
+            """
+            INSERT INTO tags (name)
+            SELECT unnest(:values)
+            ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name
+            RETURNING id, name
+            """,
+            new SqlArrayValue("text", created.toArray())
+        );
+
+        Map<String, Long> result = new HashMap<>(known);
+        inserted.forEach((id, name) -> result.put(name, id));
+        rememberAfterCommit(inserted);
+        return result;
+    }
+
+    public void clear() {
+        idsByName.clear();
+        namesById.clear();
+        unknownNames.clear();
+    }
+
+    private Map<Long, String> query(String sql, SqlArrayValue values) {
+        Map<Long, String> rows = new HashMap<>();
+        jdbc.query(sql, new MapSqlParameterSource("values", values),
+            rs -> { rows.put(rs.getLong("id"), rs.getString("name").intern()); });
+        return rows;
+    }
+
+    private void rememberAfterCommit(Map<Long, String> entries) {
+        if (!entries.isEmpty()) AfterCommit.run(() -> entries.forEach(this::put));
+    }
+
+    private void rememberUnknown(String name) {
+        if (unknownNames.size() >= maxUnknownNames) unknownNames.clear();
+        if (maxUnknownNames > 0) unknownNames.add(name);
+    }
+
+    private void put(long id, String name) {
+        String canonical = name.intern();
+        idsByName.put(canonical, id);
+        namesById.put(id, canonical);
+        unknownNames.remove(canonical);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.repository.tags;
+
+import java.util.List;
+
+public interface TagLinkListener {
+    void onTagsReplaced(long postId, List<String> oldTags, List<String> newTags);
+}
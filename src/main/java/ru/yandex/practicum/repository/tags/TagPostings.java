@@ -0,0 +1,148 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Repository
+@ConditionalOnProperty(name = "search.tags", havingValue = "bitmap")
+public class TagPostings implements TagLinkListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TagPostings.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, PostIdBitmap> postsByTag = new HashMap<>();
+    private List<TagsReplaced> pendingDuringRebuild;
+
+    public TagPostings(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public PostIdBitmap postsWithAllTags(List<String> tags) {
+        lock.readLock().lock();
+        try {
+            List<PostIdBitmap> bitmaps = new ArrayList<>(tags.size());
+            for (String tag : tags) {
+                PostIdBitmap bitmap = postsByTag.get(tag);
+                if (bitmap == null) return new PostIdBitmap();
+                bitmaps.add(bitmap);
+            }
+            return PostIdBitmap.and(bitmaps);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTagsReplaced(long postId, List<String> oldTags, List<String> newTags) {
+        TagsReplaced change = new TagsReplaced(postId, List.copyOf(oldTags), List.copyOf(newTags));
+        lock.writeLock().lock();
+        try {
+            change.applyTo(postsByTag);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(() -> { });
+    }
+
+    synchronized void rebuild(Runnable duringLoad) {
+        bufferChanges(new ArrayList<>());
+
+        Map<String, PostIdBitmap> fresh = new HashMap<>();
+        try {
+            load(fresh);
+            duringLoad.run();
+        } catch (RuntimeException e) {
+            bufferChanges(null);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(change -> change.applyTo(fresh));
+            pendingDuringRebuild = null;
+            postsByTag = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Stats stats = stats();
+        log.info("Tag postings rebuilt: {} tags, {} links, {} bytes ({} bytes per million links)",
+            stats.tags(), stats.links(), stats.bytes(), stats.bytesPerMillionLinks());
+    }
+
+    private void bufferChanges(List<TagsReplaced> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load(Map<String, PostIdBitmap> fresh) {
+        jdbc.getJdbcTemplate().query(
+            """
+            SELECT t.name, pt.post_id
+            FROM post_tags pt
+            JOIN tags t ON t.id = pt.tag_id
+            ORDER BY pt.post_id
+            """,
+            rs -> { fresh.computeIfAbsent(rs.getString("name"), k -> new PostIdBitmap()).add(rs.getLong("post_id")); }
+        );
+        fresh.values().forEach(PostIdBitmap::trim);
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long links = 0;
+            long bytes = 0;
+            for (PostIdBitmap bitmap : postsByTag.values()) {
+                links += bitmap.cardinality();
+                bytes += bitmap.sizeInBytes();
+            }
+            return new Stats(postsByTag.size(), links, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record TagsReplaced(long postId, List<String> oldTags, List<String> newTags) {
+        void applyTo(Map<String, PostIdBitmap> postsByTag) {
+            for (String tag : oldTags) {
+                PostIdBitmap bitmap = postsByTag.get(tag);
+                if (bitmap == null) continue;
+                bitmap.remove(postId);
+                if (bitmap.isEmpty()) postsByTag.remove(tag);
+            }
+            for (String tag : newTags) {
+                postsByTag.computeIfAbsent(tag, k -> new PostIdBitmap()).add(postId);
+            }
+        }
+    }
+
+    public record Stats(int tags, long links, long bytes) {
+        public long bytesPerMillionLinks() {
+            return links == 0 ? 0 : bytes * 1_000_000 / links;
+        }
+    }
+}
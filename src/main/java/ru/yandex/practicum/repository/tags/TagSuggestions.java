@@ -0,0 +1,198 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.domain.TagSuggestion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Repository
+public class TagSuggestions implements TagLinkListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TagSuggestions.class);
+
+    static final int RANKED_PREFIX_LENGTH = 2;
+
+    private static final Comparator<TagSuggestion> BY_POSTS_COUNT_THEN_NAME =
+        Comparator.comparingInt(TagSuggestion::postsCount).reversed().thenComparing(TagSuggestion::name);
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot snapshot = new Snapshot();
+
+    public TagSuggestions(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<TagSuggestion> suggest(String prefix, int limit) {
+        if (limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            return prefix.length() <= RANKED_PREFIX_LENGTH
+                ? snapshot.ranked(prefix, limit)
+                : snapshot.scan(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recounts the touched tags instead of applying +1/-1: a replacement that committed while rebuild was
+    // loading may already be in the loaded counts, and the recount cannot count it twice.
+    @Override
+    public synchronized void onTagsReplaced(long postId, List<String> oldTags, List<String> newTags) {
+        Set<String> affected = new HashSet<>(oldTags);
+        affected.addAll(newTags);
+        if (affected.isEmpty()) return;
+
+        Map<String, Integer> counts = new HashMap<>();
+        jdbc.query(
+            """
+            SELECT t.name, COUNT(pt.post_id) AS posts_count
+            FROM tags t
+            LEFT JOIN post_tags pt ON pt.tag_id = t.id
+            WHERE t.name = ANY(:names)
+            GROUP BY t.name
+            """,
+            new MapSqlParameterSource("names", new SqlArrayValue("text", affected.toArray())),
+            rs -> { counts.put(rs.getString("name"), rs.getInt("posts_count")); }
+        );
+
+        lock.writeLock().lock();
+        try {
+            for (String tag : affected) snapshot.set(tag, counts.getOrDefault(tag, 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, Integer> counts = new HashMap<>();
+        jdbc.getJdbcTemplate().query(
+            """
+            SELECT t.name, COUNT(pt.post_id) AS posts_count
+            FROM tags t
+            LEFT JOIN post_tags pt ON pt.tag_id = t.id
+            GROUP BY t.name
+            """,
+            rs -> { counts.put(rs.getString("name"), rs.getInt("posts_count")); }
+        );
+
+        load(counts);
+        log.info("Tag suggestions rebuilt: {} tags", counts.size());
+    }
+
+    public synchronized void load(Map<String, Integer> postsCountByTag) {
+        Snapshot fresh = new Snapshot();
+        postsCountByTag.forEach(fresh::put);
+
+        lock.writeLock().lock();
+        try {
+            snapshot = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void clear() {
+        load(Map.of());
+    }
+
+    private static final class Snapshot {
+
+        private final TreeMap<String, Integer> countsByName = new TreeMap<>();
+        private final Map<String, NavigableSet<TagSuggestion>> rankedByPrefix = new HashMap<>();
+
+        List<TagSuggestion> ranked(String prefix, int limit) {
+            NavigableSet<TagSuggestion> ranked = rankedByPrefix.get(prefix);
+            if (ranked == null) return List.of();
+
+            List<TagSuggestion> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (TagSuggestion suggestion : ranked) {
+                if (result.size() == limit) break;
+                result.add(suggestion);
+            }
+            return result;
+        }
+
+        List<TagSuggestion> scan(String prefix, int limit) {
+            String[] topNames = new String[limit];
+            int[] topCounts = new int[limit];
+            int size = 0;
+
+            for (Map.Entry<String, Integer> entry : countsByName.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) break;
+                int count = entry.getValue();
+                if (count <= 0) continue;
+                if (size == limit && count <= topCounts[size - 1]) continue;
+
+                int at = size == limit ? size - 1 : size++;
+                while (at > 0 && topCounts[at - 1] < count) {
+                    topNames[at] = topNames[at - 1];
+                    topCounts[at] = topCounts[at - 1];
+                    at--;
+                }
+                topNames[at] = entry.getKey();
+                topCounts[at] = count;
+            }
+
+            List<TagSuggestion> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) result.add(new TagSuggestion(topNames[i], topCounts[i]));
+            return result;
+        }
+
+        void put(String name, int count) {
+            countsByName.put(name, count);
+            if (count > 0) rank(new TagSuggestion(name, count));
+        }
+
+        void set(String name, int count) {
+            Integer before = countsByName.get(name);
+            if (before == null && count <= 0) return;
+
+            int from = before == null ? 0 : before;
+            if (from == count) return;
+            countsByName.put(name, count);
+            if (from > 0) unrank(new TagSuggestion(name, from));
+            if (count > 0) rank(new TagSuggestion(name, count));
+        }
+
+        private void rank(TagSuggestion suggestion) {
+            String name = suggestion.name();
+            for (int length = 0; length <= Math.min(RANKED_PREFIX_LENGTH, name.length()); length++) {
+                rankedByPrefix.computeIfAbsent(name.substring(0, length), k -> new TreeSet<>(BY_POSTS_COUNT_THEN_NAME))
+                    .add(suggestion);
+            }
+        }
+
+        private void unrank(TagSuggestion suggestion) {
+            String name = suggestion.name();
+            for (int length = 0; length <= Math.min(RANKED_PREFIX_LENGTH, name.length()); length++) {
+                String prefix = name.substring(0, length);
+                NavigableSet<TagSuggestion> ranked = rankedByPrefix.get(prefix);
+                if (ranked == null) continue;
+                ranked.remove(suggestion);
+                if (ranked.isEmpty()) rankedByPrefix.remove(prefix);
+            }
+        }
+    }
+}
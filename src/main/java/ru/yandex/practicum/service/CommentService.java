@@ -1,9 +1,16 @@
 package ru.yandex.practicum.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.domain.Comment;
+import ru.yandex.practicum.domain.PostSort;
 import ru.yandex.practicum.exception.not_found.CommentNotFoundException;
+import ru.yandex.practicum.repository.AfterCommit;
 import ru.yandex.practicum.repository.comments.CommentRepository;
 
 import java.util.List;
@@ -12,10 +19,23 @@ import java.util.function.Supplier;
 @Service
 public class CommentService {
 
+    private static final Logger log = LoggerFactory.getLogger(CommentService.class);
+
     private final CommentRepository comments;
+    private final PostPageCache pageCache;
+    private final PostCache postCache;
+    private final boolean repairCountsOnStartup;
 
-    public CommentService(CommentRepository comments) {
+    public CommentService(
+        CommentRepository comments,
+        PostPageCache pageCache,
+        PostCache postCache,
+        @Value("${comments.repair-counts-on-startup:false}") boolean repairCountsOnStartup
+    ) {
         this.comments = comments;
+        this.pageCache = pageCache;
+        this.postCache = postCache;
+        this.repairCountsOnStartup = repairCountsOnStartup;
     }
 
     public List<Comment> getComments(Long postId) {
@@ -39,6 +59,11 @@ public class CommentService {
     @Transactional
     public Comment addComment(long postId, String text) {
         long id = comments.insert(postId, text);
+        AfterCommit.run(() -> {
+            postCache.invalidate(postId);
+            pageCache.invalidatePost(postId);
+            pageCache.invalidateSortedBy(PostSort.COMMENTS);
+        });
         return getAfterWrite(postId, id);
     }
 
@@ -50,5 +75,27 @@ public class CommentService {
 
     public void deleteComment(long postId, long commentId) {
         comments.delete(postId, commentId);
+        postCache.invalidate(postId);
+        pageCache.invalidatePost(postId);
+        pageCache.invalidateSortedBy(PostSort.COMMENTS);
+    }
+
+    @Transactional
+    public int repairCommentsCounts() {
+        int repaired = comments.repairCommentsCounts();
+        if (repaired > 0) {
+            log.warn("Repaired comments_count of {} posts", repaired);
+            AfterCommit.run(() -> {
+                postCache.clear();
+                pageCache.clear();
+            });
+        }
+        return repaired;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void repairCommentsCountsOnStartup() {
+        if (repairCountsOnStartup) repairCommentsCounts();
     }
 }
@@ -0,0 +1,233 @@
+package ru.yandex.practicum.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.exception.not_found.PostNotFoundException;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.posts.PostLikesCount;
+import ru.yandex.practicum.repository.posts.PostRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@ConditionalOnProperty(name = "likes.write-behind.enabled", havingValue = "true")
+public class LikeBuffer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeBuffer.class);
+
+    private final PostRepository postRepository;
+    private final PostCache postCache;
+    private final PostPageCache pageCache;
+    private final ScheduledExecutorService flusher;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LikeBuffer(
+        PostRepository postRepository,
+        PostCache postCache,
+        PostPageCache pageCache,
+        @Value("${likes.write-behind.flush-interval-ms:200}") long flushIntervalMs
+    ) {
+        this(postRepository, postCache, pageCache);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    LikeBuffer(PostRepository postRepository, PostCache postCache, PostPageCache pageCache) {
+        this.postRepository = postRepository;
+        this.postCache = postCache;
+        this.pageCache = pageCache;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("like-flusher").daemon().factory()
+        );
+    }
+
+    public int increment(long postId) {
+        Counter counter = counters.get(postId);
+        if (counter == null) counter = register(postId, postRepository.getLikesCount(postId));
+
+        counter.total.increment();
+        if (counter.retired) flushRetired(counter);
+        return counter.likes();
+    }
+
+    public List<PostLikesCount> add(LongList ids, LongList deltas) {
+        Set<Long> unseen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (!counters.containsKey(ids.get(i))) unseen.add(ids.get(i));
+        }
+        Map<Long, Integer> bases = new HashMap<>();
+        LongList unseenIds = LongList.wrap(unseen.stream().mapToLong(Long::longValue).toArray());
+        for (PostLikesCount count : postRepository.getLikesCounts(unseenIds)) bases.put(count.postId(), count.likesCount());
+
+        List<PostLikesCount> likes = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            long postId = ids.get(i);
+            Counter counter = counters.get(postId);
+            if (counter == null) {
+                Integer base = bases.get(postId);
+                if (base == null && unseen.contains(postId)) continue;
+                counter = base != null ? register(postId, base) : reloadCounter(postId);
+                if (counter == null) continue;
+            }
+
+            counter.total.add(deltas.get(i));
+            if (counter.retired) flushRetired(counter);
+            likes.add(new PostLikesCount(postId, counter.likes()));
+        }
+        return likes;
+    }
+
+    public void forget(long postId) {
+        Counter counter = counters.get(postId);
+        if (counter != null) drop(counter);
+    }
+
+    public long pending() {
+        long pending = 0;
+        for (Counter counter : counters.values()) pending += counter.unflushed();
+        return pending;
+    }
+
+    public synchronized int flush() {
+        LongList ids = new LongList();
+        LongList deltas = new LongList();
+        LongList totals = new LongList();
+        List<Counter> flushed = new ArrayList<>();
+
+        for (Counter counter : counters.values()) {
+            long total = counter.total.sum();
+            long delta;
+            synchronized (counter) {
+                delta = total - counter.flushed;
+            }
+            if (delta == 0) {
+                retire(counter);
+                continue;
+            }
+            ids.add(counter.postId);
+            deltas.add(delta);
+            flushed.add(counter);
+            totals.add(total);
+        }
+        if (ids.isEmpty()) return 0;
+
+        Set<Long> applied = new HashSet<>();
+        for (PostLikesCount count : postRepository.addLikes(ids, deltas)) applied.add(count.postId());
+        for (int i = 0; i < flushed.size(); i++) {
+            Counter counter = flushed.get(i);
+            if (!applied.contains(counter.postId)) {
+                drop(counter);
+                continue;
+            }
+            synchronized (counter) {
+                counter.flushed = totals.get(i);
+            }
+            postCache.invalidate(counter.postId);
+            pageCache.invalidatePost(counter.postId);
+        }
+        pageCache.invalidateSortedBy(PostSort.LIKES, PostSort.UPDATED);
+        return ids.size();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int posts = flush();
+        log.info("Like buffer flushed on shutdown: {} posts", posts);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush buffered likes, will retry: {}", e.getMessage());
+        }
+    }
+
+    private Counter reloadCounter(long postId) {
+        int base;
+        try {
+            base = postRepository.getLikesCount(postId);
+        } catch (PostNotFoundException e) {
+            return null;
+        }
+        return register(postId, base);
+    }
+
+    private Counter register(long postId, int base) {
+        Counter fresh = new Counter(postId, base);
+        Counter existing = counters.putIfAbsent(postId, fresh);
+        return existing != null ? existing : fresh;
+    }
+
+    private void drop(Counter counter) {
+        synchronized (counter) {
+            counter.retired = true;
+            counter.flushed = counter.total.sum();
+            counters.remove(counter.postId, counter);
+        }
+    }
+
+    private void retire(Counter counter) {
+        synchronized (counter) {
+            counter.retired = true;
+            counters.remove(counter.postId, counter);
+        }
+        flushRetired(counter);
+    }
+
+    private void flushRetired(Counter counter) {
+        synchronized (counter) {
+            long total = counter.total.sum();
+            long delta = total - counter.flushed;
+            if (delta == 0) return;
+            postRepository.addLikes(LongList.of(counter.postId), LongList.of(delta));
+            counter.flushed = total;
+        }
+        postCache.invalidate(counter.postId);
+        pageCache.invalidatePost(counter.postId);
+        pageCache.invalidateSortedBy(PostSort.LIKES, PostSort.UPDATED);
+    }
+
+    private static final class Counter {
+        private final long postId;
+        private final int base;
+        private final LongAdder total = new LongAdder();
+        private long flushed;
+        private volatile boolean retired;
+
+        Counter(long postId, int base) {
+            this.postId = postId;
+            this.base = base;
+        }
+
+        int likes() {
+            return (int) (base + total.sum());
+        }
+
+        synchronized long unflushed() {
+            return total.sum() - flushed;
+        }
+    }
+}
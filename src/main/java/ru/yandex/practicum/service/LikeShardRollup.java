@@ -0,0 +1,61 @@
+package ru.yandex.practicum.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.repository.posts.PostRepository;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class LikeShardRollup implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeShardRollup.class);
+
+    private final PostRepository postRepository;
+    private final PostPageCache pageCache;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("like-shard-rollup").daemon().factory()
+    );
+
+    public LikeShardRollup(
+        PostRepository postRepository,
+        PostPageCache pageCache,
+        @Value("${likes.shards.rollup-interval-ms:1000}") long rollupIntervalMs
+    ) {
+        this.postRepository = postRepository;
+        this.pageCache = pageCache;
+        if (rollupIntervalMs < 0) {
+            throw new IllegalArgumentException("likes.shards.rollup-interval-ms must not be negative: " + rollupIntervalMs);
+        }
+        if (rollupIntervalMs == 0) {
+            log.warn("Background like shard rollup is disabled (likes.shards.rollup-interval-ms=0): "
+                + "LIKES and UPDATED sorting will not see new likes until rollup() is called");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::rollupQuietly, rollupIntervalMs, rollupIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public int rollup() {
+        int posts = postRepository.rollupLikeShards();
+        if (posts > 0) pageCache.invalidateSortedBy(PostSort.LIKES, PostSort.UPDATED);
+        return posts;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void rollupQuietly() {
+        try {
+            rollup();
+        } catch (RuntimeException e) {
+            log.warn("Failed to roll up like shards, will retry: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.yandex.practicum.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.domain.Post;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+@Component
+public class PostCache {
+
+    private static final int VERSION_SLOTS = 4096;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Long, Entry> posts = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public PostCache(
+        @Value("${cache.posts.max-entries:10000}") int maxEntries,
+        @Value("${cache.posts.ttl-seconds:0}") long ttlSeconds
+    ) {
+        this(maxEntries, ttlSeconds, System::nanoTime);
+    }
+
+    PostCache(int maxEntries, long ttlSeconds, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.clock = clock;
+    }
+
+    public Post get(long id) {
+        Entry entry = posts.get(id);
+        if (entry != null) {
+            long now = clock.getAsLong();
+            if (ttlNanos > 0 && now - entry.loadedAt >= ttlNanos) {
+                if (posts.remove(id, entry)) expirations.increment();
+                entry = null;
+            } else if (entry.accessedAt != now) {
+                entry.accessedAt = now;
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.post;
+    }
+
+    public long version(long id) {
+        return versions.get(slot(id));
+    }
+
+    public void put(Post post, long computedAt) {
+        if (maxEntries <= 0) return;
+
+        int slot = slot(post.id());
+        Entry fresh = new Entry(post, clock.getAsLong());
+        posts.compute(post.id(), (id, current) -> versions.get(slot) == computedAt ? fresh : current);
+
+        if (posts.size() > maxEntries) evict();
+    }
+
+    public void invalidate(long id) {
+        int slot = slot(id);
+        posts.compute(id, (key, current) -> {
+            versions.incrementAndGet(slot);
+            return null;
+        });
+    }
+
+    public void clear() {
+        for (int i = 0; i < VERSION_SLOTS; i++) versions.incrementAndGet(i);
+        posts.clear();
+    }
+
+    public PostCacheStats stats() {
+        long hits = this.hits.sum();
+        long misses = this.misses.sum();
+        long requests = hits + misses;
+        double hitRatio = requests == 0 ? 0 : (double) hits / requests;
+        return new PostCacheStats(hits, misses, hitRatio, evictions.sum(), expirations.sum(), posts.size(), maxEntries);
+    }
+
+    private void evict() {
+        if (!evicting.tryLock()) return;
+        try {
+            int target = maxEntries - maxEntries / 10;
+            int excess = posts.size() - target;
+            if (excess <= 0) return;
+
+            List<Map.Entry<Long, Entry>> candidates = new ArrayList<>(posts.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().accessedAt));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Map.Entry<Long, Entry> candidate = candidates.get(i);
+                if (posts.remove(candidate.getKey(), candidate.getValue())) evictions.increment();
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    private static int slot(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (VERSION_SLOTS - 1);
+    }
+
+    private static final class Entry {
+        private final Post post;
+        private final long loadedAt;
+        private volatile long accessedAt;
+
+        Entry(Post post, long loadedAt) {
+            this.post = post;
+            this.loadedAt = loadedAt;
+            this.accessedAt = loadedAt;
+        }
+    }
+
+    public record PostCacheStats(
+        long hits,
+        long misses,
+        double hitRatio,
+        long evictions,
+        long expirations,
+        int size,
+        int maxEntries
+    ) { }
+}
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.service;
+
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.exception.validation.InvalidCursorException;
+import ru.yandex.practicum.repository.posts.PostSortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record PostCursor(PostSort sort, PostSortKey after, String search) {
+
+    public PostCursor(long afterId, String search) {
+        this(PostSort.NEWEST, new PostSortKey(afterId, afterId), search);
+    }
+
+    public static PostCursor first(String search, PostSort sort) {
+        return new PostCursor(sort, PostSortKey.FIRST, search == null ? "" : search);
+    }
+
+    public static PostCursor decode(String raw) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(raw), StandardCharsets.UTF_8);
+            int sep = decoded.indexOf(':');
+            if (sep < 0) throw new IllegalArgumentException("separator is missing");
+
+            String position = decoded.substring(0, sep);
+            String search = decoded.substring(sep + 1);
+
+            String[] parts = position.split("/", -1);
+            if (parts.length == 1) return new PostCursor(positiveId(parts[0]), search);
+            if (parts.length != 3) throw new IllegalArgumentException("malformed position");
+
+            PostSort sort = PostSort.valueOf(parts[0]);
+            if (sort == PostSort.NEWEST || sort == PostSort.RANK) throw new IllegalArgumentException("unexpected sort");
+
+            return new PostCursor(sort, new PostSortKey(Long.parseLong(parts[1]), positiveId(parts[2])), search);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(raw, e);
+        }
+    }
+
+    public String encode() {
+        String position = sort == PostSort.NEWEST
+            ? String.valueOf(after.id())
+            : sort + "/" + after.value() + "/" + after.id();
+        String plain = position + ":" + search;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long positiveId(String raw) {
+        long id = Long.parseLong(raw);
+        if (id <= 0) throw new IllegalArgumentException("id must be positive");
+        return id;
+    }
+}
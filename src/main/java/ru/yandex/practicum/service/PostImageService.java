@@ -1,12 +1,15 @@
 package ru.yandex.practicum.service;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import ru.yandex.practicum.domain.ImagePayload;
+import ru.yandex.practicum.domain.PostSort;
 import ru.yandex.practicum.exception.validation.ImageRequiredException;
 import ru.yandex.practicum.exception.validation.InvalidImageContentTypeException;
+import ru.yandex.practicum.repository.AfterCommit;
 import ru.yandex.practicum.repository.posts.PostRepository;
 import ru.yandex.practicum.storage.PostImageStorage;
 
@@ -18,15 +21,18 @@ public class PostImageService {
 
     private final PostRepository postRepository;
     private final PostImageStorage imageStorage;
+    private final PostPageCache pageCache;
 
     private final ImagePayload defaultImagePayload;
 
     public PostImageService(
         PostRepository postRepository,
-        PostImageStorage imageStorage
+        PostImageStorage imageStorage,
+        PostPageCache pageCache
     ) {
         this.postRepository = postRepository;
         this.imageStorage = imageStorage;
+        this.pageCache = pageCache;
         this.defaultImagePayload = loadDefaultImage();
     }
 
@@ -37,8 +43,7 @@ public class PostImageService {
             return defaultImagePayload;
         }
 
-        byte[] bytes = imageStorage.read(postId);
-        return new ImagePayload(contentType.get(), bytes);
+        return new ImagePayload(contentType.get(), imageStorage.read(postId));
     }
 
     @Transactional
@@ -53,6 +58,7 @@ public class PostImageService {
         byte[] bytes = readImageBytes(image);
         postRepository.updateImageContentType(postId, contentType);
         imageStorage.save(postId, bytes);
+        AfterCommit.run(() -> pageCache.invalidateSortedBy(PostSort.UPDATED));
     }
 
     public void delete(long postId) {
@@ -69,7 +75,7 @@ public class PostImageService {
 
     private ImagePayload loadDefaultImage() {
         try (var in = new ClassPathResource("default-post-image.svg").getInputStream()) {
-            return new ImagePayload("image/svg+xml", in.readAllBytes());
+            return new ImagePayload("image/svg+xml", new ByteArrayResource(in.readAllBytes()));
         } catch (IOException e) {
             throw new IllegalStateException("default-post-image.svg not found in classpath", e);
         }
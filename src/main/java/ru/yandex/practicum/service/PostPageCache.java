@@ -0,0 +1,170 @@
+package ru.yandex.practicum.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostPreview;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
+import ru.yandex.practicum.service.SearchParser.SearchQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+@Component
+public class PostPageCache {
+
+    private static final int POST_SLOTS = 4096;
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<PageKey, Entry> pages = new ConcurrentHashMap<>();
+    private final AtomicLongArray postInvalidatedAt = new AtomicLongArray(POST_SLOTS);
+    private final AtomicLongArray sortInvalidatedAt = new AtomicLongArray(PostSort.values().length);
+    private final AtomicLong matchingInvalidatedAt = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public PostPageCache(@Value("${cache.post-pages.max-entries:1000}") int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    PostPageCache(int maxEntries, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public PostPage get(PageKey key) {
+        Entry entry = pages.get(key);
+        if (entry != null && isStale(key, entry.page, entry.computedAt)) {
+            pages.remove(key, entry);
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (entry.accessedAt != now) entry.accessedAt = now;
+        hits.increment();
+        return entry.page;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(PageKey key, PostPage page, long computedAt) {
+        if (maxEntries <= 0 || isStaleOnPut(key, page, computedAt)) return;
+
+        Entry entry = new Entry(page, computedAt, clock.getAsLong());
+        pages.put(key, entry);
+        // An invalidation may have run between the check above and the insert, before its scan could see the entry.
+        if (isStaleOnPut(key, page, computedAt)) pages.remove(key, entry);
+
+        if (pages.size() > maxEntries) evict();
+    }
+
+    public void invalidatePost(long postId) {
+        postInvalidatedAt.accumulateAndGet(slot(postId), generation.incrementAndGet(), Math::max);
+    }
+
+    public void invalidateSortedBy(PostSort... sorts) {
+        long at = generation.incrementAndGet();
+        for (PostSort sort : sorts) sortInvalidatedAt.accumulateAndGet(sort.ordinal(), at, Math::max);
+    }
+
+    public void invalidateMatching(long postId, String title, String text, List<String> tags) {
+        long at = generation.incrementAndGet();
+        postInvalidatedAt.accumulateAndGet(slot(postId), at, Math::max);
+        matchingInvalidatedAt.accumulateAndGet(at, Math::max);
+
+        String lowerTitle = title.toLowerCase(Locale.ROOT);
+        String lowerBody = lowerTitle + " " + text.toLowerCase(Locale.ROOT);
+        pages.keySet().removeIf(key -> key.matches(lowerTitle, lowerBody, tags));
+    }
+
+    public void clear() {
+        matchingInvalidatedAt.accumulateAndGet(generation.incrementAndGet(), Math::max);
+        pages.clear();
+    }
+
+    public PageCacheStats stats() {
+        return new PageCacheStats(hits.sum(), misses.sum(), evictions.sum(), pages.size(), maxEntries);
+    }
+
+    private boolean isStaleOnPut(PageKey key, PostPage page, long computedAt) {
+        return matchingInvalidatedAt.get() > computedAt || isStale(key, page, computedAt);
+    }
+
+    private boolean isStale(PageKey key, PostPage page, long computedAt) {
+        if (sortInvalidatedAt.get(key.sort().ordinal()) > computedAt) return true;
+        for (PostPreview post : page.posts()) {
+            if (postInvalidatedAt.get(slot(post.id())) > computedAt) return true;
+        }
+        return false;
+    }
+
+    private void evict() {
+        if (!evicting.tryLock()) return;
+        try {
+            int target = maxEntries - maxEntries / 10;
+            int excess = pages.size() - target;
+            if (excess <= 0) return;
+
+            List<Map.Entry<PageKey, Entry>> candidates = new ArrayList<>(pages.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().accessedAt));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Map.Entry<PageKey, Entry> candidate = candidates.get(i);
+                if (pages.remove(candidate.getKey(), candidate.getValue())) evictions.increment();
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    private static int slot(long postId) {
+        long h = postId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (POST_SLOTS - 1);
+    }
+
+    private static final class Entry {
+        private final PostPage page;
+        private final long computedAt;
+        private volatile long accessedAt;
+
+        Entry(PostPage page, long computedAt, long accessedAt) {
+            this.page = page;
+            this.computedAt = computedAt;
+            this.accessedAt = accessedAt;
+        }
+    }
+
+    public record PageKey(SearchQuery query, SearchMode mode, PostSort sort, int pageNumber, int pageSize) {
+
+        boolean matches(String lowerTitle, String lowerBody, List<String> tags) {
+            if (!tags.containsAll(query.tags())) return false;
+            if (mode == SearchMode.FULL_TEXT) return query.terms().stream().allMatch(lowerBody::contains);
+            return lowerTitle.contains(query.titleSubstring().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public record PageCacheStats(long hits, long misses, long evictions, int size, int maxEntries) { }
+}
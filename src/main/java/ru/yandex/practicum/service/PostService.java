@@ -1,40 +1,98 @@
 package ru.yandex.practicum.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.domain.LikesBatch;
 import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.domain.PostCursorPage;
 import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostPreview;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
 import ru.yandex.practicum.entity.posts.PostEntity;
+import ru.yandex.practicum.entity.posts.PostEntityMapper;
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
 import ru.yandex.practicum.exception.not_found.PostNotFoundException;
+import ru.yandex.practicum.exception.not_found.SearchIndexDisabledException;
+import ru.yandex.practicum.exception.validation.UnsupportedSortException;
+import ru.yandex.practicum.repository.AfterCommit;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.posts.PostLikesCount;
 import ru.yandex.practicum.repository.posts.PostRepository;
+import ru.yandex.practicum.repository.posts.PostSearchIndex;
+import ru.yandex.practicum.repository.posts.PostSearchPage;
+import ru.yandex.practicum.repository.posts.SearchHits;
+import ru.yandex.practicum.repository.posts.SearchIndexConsistencyReport;
+import ru.yandex.practicum.repository.posts.SortedPostEntity;
+import ru.yandex.practicum.repository.tags.PostIdBitmap;
+import ru.yandex.practicum.repository.tags.TagPostings;
 import ru.yandex.practicum.repository.tags.TagRepository;
+import ru.yandex.practicum.service.PostPageCache.PageKey;
 import ru.yandex.practicum.service.SearchParser.SearchQuery;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @Service
 public class PostService {
 
+    private static final int BITMAP_TITLE_MAX_CANDIDATES = 10_000;
+
     private final PostRepository postRepository;
     private final TagRepository tagRepository;
     private final PostImageService postImageService;
     private final PostAssembler postAssembler;
+    private final PostEntityMapper postEntityMapper;
+    private final SearchTotals searchTotals;
+    private final PostPageCache pageCache;
+    private final PostCache postCache;
+    private final SubQueries subQueries;
+    private final ObjectProvider<PostSearchIndex> searchIndex;
+    private final ObjectProvider<TagPostings> tagPostings;
+    private final ObjectProvider<LikeBuffer> likeBuffer;
 
     public PostService(
         PostRepository postRepository,
         TagRepository tagRepository,
         PostImageService postImageService,
-        PostAssembler postAssembler
+        PostAssembler postAssembler,
+        PostEntityMapper postEntityMapper,
+        SearchTotals searchTotals,
+        PostPageCache pageCache,
+        PostCache postCache,
+        SubQueries subQueries,
+        ObjectProvider<PostSearchIndex> searchIndex,
+        ObjectProvider<TagPostings> tagPostings,
+        ObjectProvider<LikeBuffer> likeBuffer
     ) {
         this.postRepository = postRepository;
         this.tagRepository = tagRepository;
         this.postImageService = postImageService;
         this.postAssembler = postAssembler;
+        this.postEntityMapper = postEntityMapper;
+        this.searchTotals = searchTotals;
+        this.pageCache = pageCache;
+        this.postCache = postCache;
+        this.subQueries = subQueries;
+        this.searchIndex = searchIndex;
+        this.tagPostings = tagPostings;
+        this.likeBuffer = likeBuffer;
     }
 
     public Post getPost(long id) {
-        return getPost(id, () -> new PostNotFoundException(id));
+        Post cached = postCache.get(id);
+        if (cached != null) return cached;
+
+        long version = postCache.version(id);
+        Post post = getPost(id, () -> new PostNotFoundException(id));
+        postCache.put(post, version);
+        return post;
     }
 
     private Post getAfterWrite(long id) {
@@ -52,37 +110,251 @@ public class PostService {
     public Post create(String title, String text, List<String> tags) {
         long id = postRepository.insert(title, text);
         tagRepository.replaceTags(id, tags);
-        return getAfterWrite(id);
+        searchTotals.recordWrite(1);
+        return indexAfterCommit(getAfterWrite(id));
     }
 
     @Transactional
     public Post update(long id, String title, String text, List<String> tags) {
+        invalidatePagesOfCurrentVersion(id);
         postRepository.update(id, title, text);
         tagRepository.replaceTags(id, tags);
-        return getAfterWrite(id);
+        searchTotals.recordWrite(0);
+        return indexAfterCommit(getAfterWrite(id));
     }
 
     @Transactional
     public void delete(long id) {
+        invalidatePagesOfCurrentVersion(id);
+        tagRepository.replaceTags(id, List.of());
         postRepository.deleteById(id);
         postImageService.delete(id);
+        searchTotals.recordWrite(-1);
+        AfterCommit.run(() -> {
+            postCache.invalidate(id);
+            searchIndex.ifAvailable(index -> index.remove(id));
+            likeBuffer.ifAvailable(buffer -> buffer.forget(id));
+        });
+    }
+
+    private Post indexAfterCommit(Post post) {
+        AfterCommit.run(() -> {
+            postCache.invalidate(post.id());
+            searchIndex.ifAvailable(index -> index.index(post.id(), post.title(), post.tags()));
+            pageCache.invalidateMatching(post.id(), post.title(), post.text(), post.tags());
+        });
+        return post;
+    }
+
+    private void invalidatePagesOfCurrentVersion(long id) {
+        postRepository.findById(id).ifPresent(current -> AfterCommit.run(
+            () -> pageCache.invalidateMatching(id, current.title(), current.text(), current.tags())
+        ));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPosts(Consumer<Post> sink) {
+        postRepository.forEachForExport(post -> sink.accept(postEntityMapper.toPost(post)));
     }
 
     public PostPage search(String rawSearch, int pageNumber, int pageSize) {
+        return search(rawSearch, SearchMode.TITLE, PostSort.NEWEST, pageNumber, pageSize);
+    }
+
+    public PostPage search(String rawSearch, SearchMode mode, PostSort sort, int pageNumber, int pageSize) {
         SearchQuery q = SearchParser.parse(rawSearch);
+        if (mode == SearchMode.TITLE && sort == PostSort.RANK) throw new UnsupportedSortException(sort, mode);
+
+        PageKey key = new PageKey(q, mode, sort, pageNumber, pageSize);
+        PostPage cached = pageCache.get(key);
+        if (cached != null) return cached;
+
+        long generation = pageCache.generation();
+        PostPage page = mode == SearchMode.FULL_TEXT
+            ? searchFullText(q, sort, pageNumber, pageSize)
+            : searchTitle(q, sort, pageNumber, pageSize);
+        pageCache.put(key, page, generation);
+        return page;
+    }
 
-        long total = postRepository.countBySearch(q.titleSubstring(), q.tags());
-        int lastPage = total == 0 ? 1 : (int) ((total - 1) / pageSize + 1);
+    private PostPage searchTitle(SearchQuery q, PostSort sort, int pageNumber, int pageSize) {
+        if (sort == PostSort.NEWEST) {
+            PostSearchIndex index = searchIndex.getIfAvailable();
+            if (index != null) return searchIndexed(index, q, pageNumber, pageSize);
+
+            TagPostings postings = tagPostings.getIfAvailable();
+            if (postings != null && !q.tags().isEmpty()) {
+                PostPage page = searchByTagBitmap(postings, q, pageNumber, pageSize);
+                if (page != null) return page;
+            }
+        }
+
+        SearchTotal total = searchTotals.cached(q);
+        if (total == null && subQueries.isConcurrent()) return searchCountAndPageConcurrently(q, sort, pageNumber, pageSize);
+        if (total == null && !searchTotals.isApproximate()) return searchCountingTotal(q, sort, pageNumber, pageSize);
+        if (total == null) total = searchTotals.get(q);
+
+        int lastPage = lastPage(total.count(), pageSize);
         if (pageNumber > lastPage) pageNumber = lastPage;
         int offset = (pageNumber - 1) * pageSize;
 
-        List<PostEntity> entities = postRepository.searchPage(q.titleSubstring(), q.tags(), offset, pageSize);
-        List<Post> posts = postAssembler.toPosts(entities);
+        List<PostPreviewEntity> entities = postRepository.searchPage(q.titleSubstring(), q.tags(), sort, offset, pageSize);
+        List<PostPreview> posts = postAssembler.toPreviews(entities);
+
+        return new PostPage(posts, pageNumber, pageSize, lastPage, total.approximate());
+    }
+
+    private PostPage searchCountAndPageConcurrently(SearchQuery q, PostSort sort, int pageNumber, int pageSize) {
+        int requestedOffset = (pageNumber - 1) * pageSize;
+        return subQueries.both(
+            () -> searchTotals.get(q),
+            () -> postRepository.searchPage(q.titleSubstring(), q.tags(), sort, requestedOffset, pageSize),
+            (total, entities) -> {
+                int lastPage = lastPage(total.count(), pageSize);
+                int page = Math.min(pageNumber, lastPage);
+                if (page != pageNumber) {
+                    entities = postRepository.searchPage(q.titleSubstring(), q.tags(), sort, (page - 1) * pageSize, pageSize);
+                }
+                return new PostPage(postAssembler.toPreviews(entities), page, pageSize, lastPage, total.approximate());
+            }
+        );
+    }
+
+    private PostPage searchFullText(SearchQuery q, PostSort sort, int pageNumber, int pageSize) {
+        PostSearchPage page = postRepository.searchFullText(
+            q.terms(), q.tags(), sort, (long) (pageNumber - 1) * pageSize, pageSize
+        );
+
+        List<PostPreview> posts = postAssembler.toPreviews(page.posts());
+        int lastPage = lastPage(page.total(), pageSize);
+
+        return new PostPage(posts, (int) (page.offset() / pageSize + 1), pageSize, lastPage);
+    }
+
+    private PostPage searchCountingTotal(SearchQuery q, PostSort sort, int pageNumber, int pageSize) {
+        long token = searchTotals.beginCount();
+        PostSearchPage page = postRepository.searchPageWithTotal(
+            q.titleSubstring(), q.tags(), sort, (long) (pageNumber - 1) * pageSize, pageSize
+        );
+        searchTotals.remember(q, token, new SearchTotal(page.total(), false));
+
+        List<PostPreview> posts = postAssembler.toPreviews(page.posts());
+        int lastPage = lastPage(page.total(), pageSize);
+
+        return new PostPage(posts, (int) (page.offset() / pageSize + 1), pageSize, lastPage);
+    }
+
+    public SearchIndexConsistencyReport checkSearchIndex() {
+        PostSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) throw new SearchIndexDisabledException();
+        return index.checkConsistency();
+    }
+
+    private PostPage searchIndexed(PostSearchIndex index, SearchQuery q, int pageNumber, int pageSize) {
+        SearchHits hits = index.search(q.titleSubstring(), q.tags(), (pageNumber - 1) * pageSize, pageSize);
+
+        int lastPage = lastPage(hits.total(), pageSize);
+        if (pageNumber > lastPage) {
+            pageNumber = lastPage;
+            hits = index.search(q.titleSubstring(), q.tags(), (pageNumber - 1) * pageSize, pageSize);
+        }
+
+        List<PostPreviewEntity> entities = postRepository.findPreviewsByIds(hits.ids());
+        List<PostPreview> posts = postAssembler.toPreviews(entities);
 
         return new PostPage(posts, pageNumber, pageSize, lastPage);
     }
 
+    private PostPage searchByTagBitmap(TagPostings postings, SearchQuery q, int pageNumber, int pageSize) {
+        PostIdBitmap matched = postings.postsWithAllTags(q.tags());
+
+        if (q.titleSubstring().isEmpty()) {
+            int lastPage = lastPage(matched.cardinality(), pageSize);
+            pageNumber = Math.min(pageNumber, lastPage);
+            LongList ids = LongList.wrap(matched.toArrayDescending((long) (pageNumber - 1) * pageSize, pageSize));
+
+            List<PostPreviewEntity> entities = postRepository.findPreviewsByIds(ids);
+            return new PostPage(postAssembler.toPreviews(entities), pageNumber, pageSize, lastPage);
+        }
+
+        // Candidates travel to PostgreSQL as an array literal; past this size the trigram index on titles
+        // joined with post_tags is cheaper than shipping the ids, so the regular SQL search takes over.
+        if (matched.cardinality() > BITMAP_TITLE_MAX_CANDIDATES) return null;
+
+        PostSearchPage page = postRepository.searchPageByIds(
+            q.titleSubstring(), matched.toArray(), (long) (pageNumber - 1) * pageSize, pageSize
+        );
+        List<PostPreview> posts = postAssembler.toPreviews(page.posts());
+        int lastPage = lastPage(page.total(), pageSize);
+
+        return new PostPage(posts, (int) (page.offset() / pageSize + 1), pageSize, lastPage);
+    }
+
+    private static int lastPage(long total, int pageSize) {
+        return total == 0 ? 1 : (int) ((total - 1) / pageSize + 1);
+    }
+
+    public PostCursorPage searchAfter(String rawSearch, String after, int pageSize) {
+        return searchAfter(rawSearch, after, PostSort.NEWEST, pageSize);
+    }
+
+    public PostCursorPage searchAfter(String rawSearch, String after, PostSort sort, int pageSize) {
+        if (sort == PostSort.RANK) throw new UnsupportedSortException(sort, SearchMode.TITLE);
+
+        PostCursor cursor = after == null || after.isBlank()
+            ? PostCursor.first(rawSearch, sort)
+            : PostCursor.decode(after);
+        SearchQuery q = SearchParser.parse(cursor.search());
+
+        List<SortedPostEntity> rows = postRepository.searchAfter(
+            q.titleSubstring(), q.tags(), cursor.sort(), cursor.after(), pageSize + 1
+        );
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) rows = rows.subList(0, pageSize);
+        List<PostPreview> posts = postAssembler.toPreviews(rows.stream().map(SortedPostEntity::post).toList());
+
+        String nextCursor = hasNext
+            ? new PostCursor(cursor.sort(), rows.getLast().key(), cursor.search()).encode()
+            : null;
+        return new PostCursorPage(posts, nextCursor);
+    }
+
+    public LikesBatch addLikes(Map<Long, Integer> increments) {
+        LongList ids = new LongList(increments.size());
+        LongList deltas = new LongList(increments.size());
+        new TreeMap<>(increments).forEach((id, delta) -> {
+            ids.add(id);
+            deltas.add(delta);
+        });
+
+        Map<Long, Integer> likes = new LinkedHashMap<>();
+        LikeBuffer buffer = likeBuffer.getIfAvailable();
+        if (buffer != null) {
+            for (PostLikesCount count : buffer.add(ids, deltas)) likes.put(count.postId(), count.likesCount());
+        } else {
+            for (PostLikesCount count : postRepository.addLikes(ids, deltas)) {
+                likes.put(count.postId(), count.likesCount());
+                postCache.invalidate(count.postId());
+                pageCache.invalidatePost(count.postId());
+            }
+            if (!likes.isEmpty()) pageCache.invalidateSortedBy(PostSort.LIKES, PostSort.UPDATED);
+        }
+
+        List<Long> unknown = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (!likes.containsKey(ids.get(i))) unknown.add(ids.get(i));
+        }
+        return new LikesBatch(likes, unknown);
+    }
+
     public int incrementLikes(long id) {
-        return postRepository.incrementLikes(id);
+        LikeBuffer buffer = likeBuffer.getIfAvailable();
+        if (buffer != null) return buffer.increment(id);
+
+        int likes = postRepository.incrementLikes(id);
+        postCache.invalidate(id);
+        pageCache.invalidatePost(id);
+        return likes;
     }
 }
\ No newline at end of file
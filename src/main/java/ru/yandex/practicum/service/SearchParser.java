@@ -1,38 +1,81 @@
 package ru.yandex.practicum.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public final class SearchParser {
 
+    private static final SearchQuery EMPTY = new SearchQuery("", List.of(), List.of());
+
+    private static final int LINEAR_DEDUP_LIMIT = 8;
+
     public static SearchQuery parse(String raw) {
-        if (raw == null) raw = "";
+        if (raw == null || raw.isEmpty()) return EMPTY;
 
-        String[] words = raw.split("\\s+");
+        int length = raw.length();
+        StringBuilder title = null;
+        String[] tags = null;
+        int tagCount = 0;
+        List<String> terms = null;
+        Set<String> seenTerms = null;
 
-        List<String> tags = new ArrayList<>();
-        List<String> titleWords = new ArrayList<>();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isWhitespace(raw.charAt(i))) i++;
+            if (i == length) break;
 
-        for (String w : words) {
-            if (w.isEmpty()) continue;
-            if (w.startsWith("#")) {
-                if (w.length() == 1) continue;
-                tags.add(w.substring(1));
-            } else {
-                titleWords.add(w);
+            int start = i;
+            while (i < length && !isWhitespace(raw.charAt(i))) i++;
+
+            if (raw.charAt(start) == '#') {
+                if (i - start == 1) continue;
+                if (tags == null) tags = new String[4];
+                else if (tagCount == tags.length) tags = Arrays.copyOf(tags, tagCount * 2);
+                tags[tagCount++] = raw.substring(start + 1, i).toLowerCase();
+                continue;
+            }
+
+            if (title == null) title = new StringBuilder(length);
+            else title.append(' ');
+            title.append(raw, start, i);
+
+            String term = raw.substring(start, i).toLowerCase();
+            if (terms == null) terms = new ArrayList<>();
+            if (seenTerms != null) {
+                if (seenTerms.add(term)) terms.add(term);
+            } else if (!terms.contains(term)) {
+                terms.add(term);
+                if (terms.size() > LINEAR_DEDUP_LIMIT) seenTerms = new HashSet<>(terms);
             }
         }
 
-        String titleSubstring = String.join(" ", titleWords);
-        List<String> normalizedTags = tags.stream()
-            .map(String::toLowerCase)
-            .distinct()
-            .sorted()
-            .toList();
+        if (title == null && tags == null) return EMPTY;
 
-        return new SearchQuery(titleSubstring, normalizedTags);
+        return new SearchQuery(
+            title == null ? "" : title.toString(),
+            sortedDistinct(tags, tagCount),
+            terms == null ? List.of() : List.copyOf(terms)
+        );
     }
 
-    public record SearchQuery(String titleSubstring, List<String> tags) { }
-}
+    private static List<String> sortedDistinct(String[] values, int count) {
+        if (count == 0) return List.of();
+        if (count == 1) return List.of(values[0]);
 
+        Arrays.sort(values, 0, count);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (!values[i].equals(values[distinct - 1])) values[distinct++] = values[i];
+        }
+        return List.of(Arrays.copyOf(values, distinct));
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    public record SearchQuery(String titleSubstring, List<String> tags, List<String> terms) { }
+}
@@ -0,0 +1,3 @@
+package ru.yandex.practicum.service;
+
+public record SearchTotal(long count, boolean approximate) { }
@@ -0,0 +1,127 @@
+package ru.yandex.practicum.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.repository.posts.PostRepository;
+import ru.yandex.practicum.service.SearchParser.SearchQuery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class SearchTotals {
+
+    private static final long UNKNOWN = -1;
+
+    private final PostRepository postRepository;
+    private final boolean approximate;
+    private final long exactThreshold;
+
+    private final Map<SearchQuery, SearchTotal> cache;
+    private long generation;
+    private int pendingWrites;
+    private long allPosts = UNKNOWN;
+
+    public SearchTotals(
+        PostRepository postRepository,
+        @Value("${search.count.approximate:false}") boolean approximate,
+        @Value("${search.count.exact-threshold:10000}") long exactThreshold,
+        @Value("${search.count.cache-size:1024}") int cacheSize
+    ) {
+        this.postRepository = postRepository;
+        this.approximate = approximate;
+        this.exactThreshold = exactThreshold;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SearchQuery, SearchTotal> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public SearchTotal get(SearchQuery q) {
+        SearchTotal cached = cached(q);
+        if (cached != null) return cached;
+
+        long token = beginCount();
+        SearchTotal total = isAllPosts(q) ? exact(q) : compute(q);
+        remember(q, token, total);
+        return total;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public synchronized SearchTotal cached(SearchQuery q) {
+        if (isAllPosts(q)) return allPosts == UNKNOWN ? null : new SearchTotal(allPosts, false);
+        return cache.get(q);
+    }
+
+    public synchronized long beginCount() {
+        return pendingWrites == 0 ? generation : UNKNOWN;
+    }
+
+    public synchronized void remember(SearchQuery q, long token, SearchTotal total) {
+        if (token != generation || pendingWrites != 0) return;
+        if (isAllPosts(q)) allPosts = total.count();
+        else cache.put(q, total);
+    }
+
+    public void recordWrite(int postsDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyWrite(postsDelta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                synchronized (SearchTotals.this) {
+                    pendingWrites++;
+                    committing = true;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!committing) return;
+                synchronized (SearchTotals.this) {
+                    pendingWrites--;
+                    applyWrite(status == STATUS_COMMITTED ? postsDelta : 0);
+                }
+            }
+        });
+    }
+
+    public synchronized void clear() {
+        generation++;
+        cache.clear();
+        allPosts = UNKNOWN;
+    }
+
+    private synchronized void applyWrite(int postsDelta) {
+        generation++;
+        cache.clear();
+        if (allPosts != UNKNOWN) allPosts += postsDelta;
+    }
+
+    private SearchTotal compute(SearchQuery q) {
+        if (!approximate) return exact(q);
+
+        long estimate = postRepository.estimateCountBySearch(q.titleSubstring(), q.tags());
+        return estimate <= exactThreshold ? exact(q) : new SearchTotal(estimate, true);
+    }
+
+    private SearchTotal exact(SearchQuery q) {
+        return new SearchTotal(postRepository.countBySearch(q.titleSubstring(), q.tags()), false);
+    }
+
+    private static boolean isAllPosts(SearchQuery q) {
+        return q.titleSubstring().isEmpty() && q.tags().isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+@Component
+public class SubQueries {
+
+    private final boolean concurrent;
+
+    public SubQueries(@Value("${search.sub-queries.concurrent:false}") boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public <A, B, R> R both(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combine) {
+        if (!concurrent || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return combine.apply(first.get(), second.get());
+        }
+
+        A a;
+        B b;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+            Future<Object> fa = completion.submit(first::get);
+            Future<Object> fb = completion.submit(second::get);
+            try {
+                awaitOrCancel(completion, fa, fb);
+                awaitOrCancel(completion, fa, fb);
+            } catch (InterruptedException e) {
+                fa.cancel(true);
+                fb.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for sub-queries", e);
+            }
+            a = cast(fa.resultNow());
+            b = cast(fb.resultNow());
+        } finally {
+            // Not close(): a JDBC call ignores interruption, and close() would hold a failure until the slower
+            // sibling query returns. The sibling finishes in the background and gives its connection back.
+            executor.shutdownNow();
+        }
+        return combine.apply(a, b);
+    }
+
+    private static void awaitOrCancel(
+        ExecutorCompletionService<Object> completion,
+        Future<Object> fa,
+        Future<Object> fb
+    ) throws InterruptedException {
+        Future<Object> done = completion.take();
+        try {
+            done.get();
+        } catch (ExecutionException e) {
+            fa.cancel(true);
+            fb.cancel(true);
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error error) throw error;
+        return new IllegalStateException("Sub-query failed", cause);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+}
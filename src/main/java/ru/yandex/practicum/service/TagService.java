@@ -0,0 +1,59 @@
+package ru.yandex.practicum.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.domain.TagSuggestion;
+import ru.yandex.practicum.repository.AfterCommit;
+import ru.yandex.practicum.repository.tags.TagRepository;
+import ru.yandex.practicum.repository.tags.TagSuggestions;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class TagService {
+
+    private static final Logger log = LoggerFactory.getLogger(TagService.class);
+
+    private final TagSuggestions suggestions;
+    private final TagRepository tagRepository;
+    private final PostPageCache pageCache;
+    private final PostCache postCache;
+
+    public TagService(
+        TagSuggestions suggestions,
+        TagRepository tagRepository,
+        PostPageCache pageCache,
+        PostCache postCache
+    ) {
+        this.suggestions = suggestions;
+        this.tagRepository = tagRepository;
+        this.pageCache = pageCache;
+        this.postCache = postCache;
+    }
+
+    public List<TagSuggestion> suggest(String rawPrefix, int limit) {
+        String prefix = rawPrefix == null ? "" : rawPrefix.trim();
+        if (prefix.startsWith("#")) prefix = prefix.substring(1);
+        return suggestions.suggest(prefix.toLowerCase(Locale.ROOT), limit);
+    }
+
+    public List<Long> findPostsWithStaleTagNames() {
+        return tagRepository.findPostsWithStaleTagNames();
+    }
+
+    @Transactional
+    public int repairTagNames() {
+        int repaired = tagRepository.repairTagNames();
+        if (repaired > 0) {
+            log.warn("Repaired tag_names of {} posts", repaired);
+            AfterCommit.run(() -> {
+                postCache.clear();
+                pageCache.clear();
+            });
+        }
+        return repaired;
+    }
+}
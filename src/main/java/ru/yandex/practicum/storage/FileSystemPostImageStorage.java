@@ -2,6 +2,8 @@ package ru.yandex.practicum.storage;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -34,12 +36,8 @@ public class FileSystemPostImageStorage implements PostImageStorage {
     }
 
     @Override
-    public byte[] read(long postId) {
-        try {
-            return Files.readAllBytes(pathForPost(postId));
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read image for post " + postId, e);
-        }
+    public Resource read(long postId) {
+        return new FileSystemResource(pathForPost(postId));
     }
 
     @Override
@@ -1,6 +1,8 @@
 package ru.yandex.practicum.storage;
 
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -21,12 +23,12 @@ public class InMemoryPostImageStorage implements PostImageStorage {
     }
 
     @Override
-    public byte[] read(long postId) {
+    public Resource read(long postId) {
         byte[] bytes = storage.get(postId);
         if (bytes == null) {
             throw new IllegalStateException("Image not found for postId=" + postId);
         }
-        return bytes;
+        return new ByteArrayResource(bytes);
     }
 
     @Override
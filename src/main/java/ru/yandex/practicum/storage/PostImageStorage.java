@@ -1,8 +1,10 @@
 package ru.yandex.practicum.storage;
 
+import org.springframework.core.io.Resource;
+
 public interface PostImageStorage {
     void save(long postId, byte[] bytes);
-    byte[] read(long postId);
+    Resource read(long postId);
     boolean exists(long postId);
     void delete(long postId);
 }
@@ -4,11 +4,46 @@ CREATE TABLE IF NOT EXISTS posts (
     title TEXT NOT NULL,
     text TEXT NOT NULL,
     likes_count INTEGER NOT NULL DEFAULT 0,
+    comments_count INTEGER NOT NULL DEFAULT 0,
+    tag_names TEXT[] NOT NULL DEFAULT '{}',
     image_content_type TEXT,
+    search_vector TSVECTOR NOT NULL DEFAULT ''::tsvector,
     created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
     updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
 );
 
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comments_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS tag_names TEXT[] NOT NULL DEFAULT '{}';
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector TSVECTOR NOT NULL DEFAULT ''::tsvector;
+
+UPDATE posts
+SET search_vector = to_tsvector('simple', title || ' ' || text)
+WHERE search_vector = ''::tsvector
+  AND to_tsvector('simple', title || ' ' || text) <> ''::tsvector;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_posts_title_trgm ON posts USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_posts_likes ON posts (likes_count DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_posts_comments ON posts (comments_count DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_posts_updated ON posts (updated_at DESC, id DESC);
+
+-- LIKES
+CREATE TABLE IF NOT EXISTS post_like_shards (
+    post_id BIGINT NOT NULL REFERENCES posts(id) ON DELETE CASCADE,
+    shard SMALLINT NOT NULL,
+    count INTEGER NOT NULL,
+    liked_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (post_id, shard)
+);
+
+ALTER TABLE post_like_shards ADD COLUMN IF NOT EXISTS liked_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
 -- TAGS
 CREATE TABLE IF NOT EXISTS tags (
     id BIGSERIAL PRIMARY KEY,
@@ -33,3 +68,19 @@ CREATE TABLE IF NOT EXISTS comments (
 );
 
 CREATE INDEX IF NOT EXISTS idx_comments_post_id ON comments (post_id);
+
+-- BACKFILL
+UPDATE posts p
+SET tag_names = (
+    SELECT COALESCE(array_agg(t.name ORDER BY t.name COLLATE "C"), '{}')
+    FROM post_tags pt
+    JOIN tags t ON t.id = pt.tag_id
+    WHERE pt.post_id = p.id
+)
+WHERE p.tag_names = '{}'
+  AND EXISTS (SELECT 1 FROM post_tags pt WHERE pt.post_id = p.id);
+
+UPDATE posts p
+SET comments_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)
+WHERE p.comments_count = 0
+  AND EXISTS (SELECT 1 FROM comments c WHERE c.post_id = p.id);
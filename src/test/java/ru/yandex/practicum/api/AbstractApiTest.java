@@ -6,20 +6,30 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.yandex.practicum.configuration.ApiTestConfiguration;
+import ru.yandex.practicum.repository.diagnostics.SlowQueryLog;
 import ru.yandex.practicum.service.CommentService;
+import ru.yandex.practicum.service.PostCache;
 import ru.yandex.practicum.service.PostImageService;
+import ru.yandex.practicum.service.PostPageCache;
 import ru.yandex.practicum.service.PostService;
+import ru.yandex.practicum.service.TagService;
 import tools.jackson.databind.ObjectMapper;
 
 @WebMvcTest
 @Import(ApiTestConfiguration.class)
 public abstract class AbstractApiTest {
 
+    protected static final String INTERNAL_TOKEN = "test-internal-token";
+
     @Autowired protected MockMvc mvc;
     @Autowired protected ObjectMapper objectMapper;
 
     @MockitoBean protected PostService postService;
     @MockitoBean protected PostImageService postImageService;
     @MockitoBean protected CommentService commentService;
+    @MockitoBean protected PostPageCache postPageCache;
+    @MockitoBean protected PostCache postCache;
+    @MockitoBean protected TagService tagService;
+    @MockitoBean protected SlowQueryLog slowQueryLog;
 }
 
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.yandex.practicum.api.internal.InternalAccessInterceptor;
+import ru.yandex.practicum.exception.forbidden.InvalidInternalTokenException;
+import ru.yandex.practicum.exception.not_found.InternalApiDisabledException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.yandex.practicum.api.internal.InternalAccessInterceptor.TOKEN_HEADER;
+
+public class InternalAccessInterceptorTest {
+
+    @Test
+    void preHandle_withoutConfiguredToken_hidesInternalApi() {
+        var interceptor = new InternalAccessInterceptor("");
+        var request = new MockHttpServletRequest("GET", "/internal/slow-queries");
+        request.addHeader(TOKEN_HEADER, "");
+
+        assertThrows(InternalApiDisabledException.class,
+            () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void preHandle_checksToken() {
+        var interceptor = new InternalAccessInterceptor("secret");
+        var request = new MockHttpServletRequest("GET", "/internal/slow-queries");
+
+        assertThrows(InvalidInternalTokenException.class,
+            () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        request.addHeader(TOKEN_HEADER, "secret");
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.api;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.service.PostCache.PostCacheStats;
+import ru.yandex.practicum.service.PostPageCache.PageCacheStats;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.yandex.practicum.api.internal.InternalAccessInterceptor.TOKEN_HEADER;
+
+public class InternalCacheControllerTest extends AbstractApiTest {
+
+    // ========================= GET /internal/caches/post-pages =========================
+
+    @Test
+    void postPages_returnsStats() throws Exception {
+        when(postPageCache.stats()).thenReturn(new PageCacheStats(10, 4, 1, 3, 1000));
+
+        mvc.perform(get("/internal/caches/post-pages").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hits", is(10)))
+            .andExpect(jsonPath("$.misses", is(4)))
+            .andExpect(jsonPath("$.evictions", is(1)))
+            .andExpect(jsonPath("$.size", is(3)))
+            .andExpect(jsonPath("$.maxEntries", is(1000)));
+    }
+
+    // ========================= GET /internal/caches/posts =========================
+
+    @Test
+    void posts_returnsStats() throws Exception {
+        when(postCache.stats()).thenReturn(new PostCacheStats(3, 1, 0.75, 0, 2, 5, 10000));
+
+        mvc.perform(get("/internal/caches/posts").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hits", is(3)))
+            .andExpect(jsonPath("$.misses", is(1)))
+            .andExpect(jsonPath("$.hitRatio", is(0.75)))
+            .andExpect(jsonPath("$.expirations", is(2)))
+            .andExpect(jsonPath("$.size", is(5)))
+            .andExpect(jsonPath("$.maxEntries", is(10000)));
+    }
+}
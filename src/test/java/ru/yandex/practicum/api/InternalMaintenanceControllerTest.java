@@ -0,0 +1,83 @@
+package ru.yandex.practicum.api;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.exception.not_found.SearchIndexDisabledException;
+import ru.yandex.practicum.repository.posts.SearchIndexConsistencyReport;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.yandex.practicum.api.internal.InternalAccessInterceptor.TOKEN_HEADER;
+
+public class InternalMaintenanceControllerTest extends AbstractApiTest {
+
+    // ========================= POST /internal/maintenance/comments-counts =========================
+
+    @Test
+    void repairCommentsCounts_returnsNumberOfRepairedPosts() throws Exception {
+        when(commentService.repairCommentsCounts()).thenReturn(3);
+
+        mvc.perform(post("/internal/maintenance/comments-counts").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.repairedPosts", is(3)));
+    }
+
+    @Test
+    void repairCommentsCounts_withoutToken_isForbidden() throws Exception {
+        mvc.perform(post("/internal/maintenance/comments-counts"))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(commentService);
+    }
+
+    // ========================= /internal/maintenance/tag-names =========================
+
+    @Test
+    void checkTagNames_returnsStalePostIds() throws Exception {
+        when(tagService.findPostsWithStaleTagNames()).thenReturn(List.of(4L, 9L));
+
+        mvc.perform(get("/internal/maintenance/tag-names").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.stalePosts", contains(4, 9)));
+    }
+
+    @Test
+    void repairTagNames_returnsNumberOfRepairedPosts() throws Exception {
+        when(tagService.repairTagNames()).thenReturn(2);
+
+        mvc.perform(post("/internal/maintenance/tag-names").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.repairedPosts", is(2)));
+    }
+
+    // ========================= GET /internal/maintenance/search-index =========================
+
+    @Test
+    void checkSearchIndex_returnsReport() throws Exception {
+        when(postService.checkSearchIndex())
+            .thenReturn(new SearchIndexConsistencyReport(3, 4, List.of(7L), List.of(), List.of(2L)));
+
+        mvc.perform(get("/internal/maintenance/search-index").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.consistent", is(false)))
+            .andExpect(jsonPath("$.indexedPosts", is(3)))
+            .andExpect(jsonPath("$.databasePosts", is(4)))
+            .andExpect(jsonPath("$.missingInIndex", contains(7)))
+            .andExpect(jsonPath("$.mismatched", contains(2)));
+    }
+
+    @Test
+    void checkSearchIndex_sqlEngine_isNotFound() throws Exception {
+        when(postService.checkSearchIndex()).thenThrow(new SearchIndexDisabledException());
+
+        mvc.perform(get("/internal/maintenance/search-index").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isNotFound());
+    }
+}
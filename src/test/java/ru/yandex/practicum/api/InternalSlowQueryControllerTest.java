@@ -0,0 +1,67 @@
+package ru.yandex.practicum.api;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.repository.diagnostics.SlowQuery;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.yandex.practicum.api.internal.InternalAccessInterceptor.TOKEN_HEADER;
+
+public class InternalSlowQueryControllerTest extends AbstractApiTest {
+
+    // ========================= GET /internal/slow-queries =========================
+
+    @Test
+    void slowest_returnsCapturedQueries() throws Exception {
+        when(slowQueryLog.slowest()).thenReturn(List.of(
+            new SlowQuery(2, "SELECT * FROM posts WHERE id = :id", List.of("5"), 250_000, Instant.EPOCH, "Seq Scan on posts"),
+            new SlowQuery(1, "UPDATE posts SET title = :title", List.of("t"), 80_000, Instant.EPOCH, null)
+        ));
+
+        mvc.perform(get("/internal/slow-queries").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].sql", is("SELECT * FROM posts WHERE id = :id")))
+            .andExpect(jsonPath("$[0].parameters[0]", is("5")))
+            .andExpect(jsonPath("$[0].durationMicros", is(250_000)))
+            .andExpect(jsonPath("$[0].plan", is("Seq Scan on posts")))
+            .andExpect(jsonPath("$[1].plan").doesNotExist());
+    }
+
+    @Test
+    void slowest_withoutToken_isForbidden() throws Exception {
+        mvc.perform(get("/internal/slow-queries"))
+            .andExpect(status().isForbidden())
+            .andExpect(jsonPath("$.name", is("InvalidInternalTokenException")));
+
+        verifyNoInteractions(slowQueryLog);
+    }
+
+    @Test
+    void slowest_withWrongToken_isForbidden() throws Exception {
+        mvc.perform(get("/internal/slow-queries").header(TOKEN_HEADER, "guess"))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(slowQueryLog);
+    }
+
+    // ========================= DELETE /internal/slow-queries =========================
+
+    @Test
+    void clear_returnsNoContent() throws Exception {
+        mvc.perform(delete("/internal/slow-queries").header(TOKEN_HEADER, INTERNAL_TOKEN))
+            .andExpect(status().isNoContent());
+
+        verify(slowQueryLog).clear();
+    }
+}
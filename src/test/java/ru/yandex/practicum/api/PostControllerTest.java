@@ -2,22 +2,34 @@ package ru.yandex.practicum.api;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.yandex.practicum.api.posts.dto.PostCreateRequest;
 import ru.yandex.practicum.api.posts.dto.PostUpdateRequest;
 import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.domain.PostCursorPage;
 import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostPreview;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class PostControllerTest extends AbstractApiTest {
@@ -26,11 +38,11 @@ public class PostControllerTest extends AbstractApiTest {
 
     @Test
     void getPosts() throws Exception {
-        Post p1 = new Post(1L, "title1", "text1", 5, 1, List.of("tag"));
-        Post p2 = new Post(2L, "title2", "text2", 0, 0, List.of());
+        PostPreview p1 = new PostPreview(1L, "title1", "text1", 5, 1, List.of("tag"));
+        PostPreview p2 = new PostPreview(2L, "title2", "text2", 0, 0, List.of());
         PostPage page = new PostPage(List.of(p1, p2), 2, 5, 3);
 
-        when(postService.search("title", 2, 5)).thenReturn(page);
+        when(postService.search("title", SearchMode.TITLE, PostSort.NEWEST, 2, 5)).thenReturn(page);
 
         mvc.perform(get("/api/posts")
                 .param("search", "title")
@@ -41,6 +53,7 @@ public class PostControllerTest extends AbstractApiTest {
             .andExpect(jsonPath("$.hasPrev", is(true)))
             .andExpect(jsonPath("$.hasNext", is(true)))
             .andExpect(jsonPath("$.lastPage", is(3)))
+            .andExpect(jsonPath("$.approximateTotal", is(false)))
 
             .andExpect(jsonPath("$.posts[0].id", is(1)))
             .andExpect(jsonPath("$.posts[0].title", is("title1")))
@@ -53,6 +66,63 @@ public class PostControllerTest extends AbstractApiTest {
             .andExpect(jsonPath("$.posts[1].tags", hasSize(0)));
     }
 
+    @Test
+    void getPosts_sortParam_isCaseInsensitive() throws Exception {
+        PostPage page = new PostPage(List.of(), 1, 5, 1);
+        when(postService.search("", SearchMode.TITLE, PostSort.LIKES, 1, 5)).thenReturn(page);
+
+        mvc.perform(get("/api/posts")
+                .param("search", "")
+                .param("sort", "likes")
+                .param("pageNumber", "1")
+                .param("pageSize", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts", hasSize(0)));
+    }
+
+    @Test
+    void getPostsAfter() throws Exception {
+        PostPreview p1 = new PostPreview(3L, "title3", "text3", 0, 0, List.of());
+        PostCursorPage page = new PostCursorPage(List.of(p1), "next");
+
+        when(postService.searchAfter("title", "", PostSort.NEWEST, 1)).thenReturn(page);
+
+        mvc.perform(get("/api/posts")
+                .param("search", "title")
+                .param("after", "")
+                .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts", hasSize(1)))
+            .andExpect(jsonPath("$.posts[0].id", is(3)))
+            .andExpect(jsonPath("$.hasNext", is(true)))
+            .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    // ========================= GET /api/posts/export =========================
+
+    @Test
+    void exportPosts_writesNdjson() throws Exception {
+        doAnswer(inv -> {
+            Consumer<Post> sink = inv.getArgument(0);
+            sink.accept(new Post(1L, "t1", "text1", 2, 1, List.of("a")));
+            sink.accept(new Post(2L, "t2", "text2", 0, 0, List.of()));
+            return null;
+        }).when(postService).exportPosts(any());
+
+        MvcResult result = mvc.perform(get("/api/posts/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertEquals(600_000, result.getRequest().getAsyncContext().getTimeout());
+
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(
+                "{\"id\":1,\"title\":\"t1\",\"text\":\"text1\",\"tags\":[\"a\"],\"likesCount\":2,\"commentsCount\":1}\n"
+                    + "{\"id\":2,\"title\":\"t2\",\"text\":\"text2\",\"tags\":[],\"likesCount\":0,\"commentsCount\":0}\n"
+            ));
+    }
+
     // ========================= GET /api/posts/{id} =========================
 
     @Test
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.api;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mock.web.MockMultipartFile;
 import ru.yandex.practicum.domain.ImagePayload;
 
@@ -77,11 +78,12 @@ public class PostImageControllerTest extends AbstractApiTest {
     @Test
     void getImage() throws Exception {
         byte[] bytes = new byte[] {1, 2, 3};
-        when(postImageService.getOrDefault(7L)).thenReturn(new ImagePayload("image/png", bytes));
+        when(postImageService.getOrDefault(7L)).thenReturn(new ImagePayload("image/png", new ByteArrayResource(bytes)));
 
         mvc.perform(get("/api/posts/7/image"))
             .andExpect(status().isOk())
             .andExpect(header().string("Content-Type", "image/png"))
+            .andExpect(header().longValue("Content-Length", bytes.length))
             .andExpect(content().bytes(bytes));
     }
 
@@ -0,0 +1,61 @@
+package ru.yandex.practicum.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.yandex.practicum.domain.LikesBatch;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PostLikesBatchControllerTest extends AbstractApiTest {
+
+    @Test
+    void addLikes_returnsCountsAndUnknownIds() throws Exception {
+        when(postService.addLikes(Map.of(1L, 3, 2L, 1)))
+            .thenReturn(new LikesBatch(Map.of(1L, 13), List.of(2L)));
+
+        mvc.perform(post("/api/posts/likes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"increments\": {\"1\": 3, \"2\": 1}}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likesCounts['1']", is(13)))
+            .andExpect(jsonPath("$.unknownPostIds[0]", is(2)));
+    }
+
+    @Test
+    void addLikes_emptyBatch_returns400() throws Exception {
+        mvc.perform(post("/api/posts/likes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"increments\": {}}"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void addLikes_nonPositiveIncrement_returns400() throws Exception {
+        mvc.perform(post("/api/posts/likes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"increments\": {\"1\": 0}}"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void addLikes_nonPositiveId_returns400() throws Exception {
+        mvc.perform(post("/api/posts/likes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"increments\": {\"-1\": 2}}"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(postService);
+    }
+}
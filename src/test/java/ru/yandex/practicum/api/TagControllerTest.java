@@ -0,0 +1,43 @@
+package ru.yandex.practicum.api;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.domain.TagSuggestion;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TagControllerTest extends AbstractApiTest {
+
+    // ========================= GET /api/tags/suggest =========================
+
+    @Test
+    void suggest_returnsRankedTags() throws Exception {
+        when(tagService.suggest("#ja", 2)).thenReturn(List.of(
+            new TagSuggestion("javascript", 3),
+            new TagSuggestion("java", 2)
+        ));
+
+        mvc.perform(get("/api/tags/suggest")
+                .param("prefix", "#ja")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name", is("javascript")))
+            .andExpect(jsonPath("$[0].postsCount", is(3)))
+            .andExpect(jsonPath("$[1].name", is("java")));
+    }
+
+    @Test
+    void suggest_limitOutOfRange_badRequest() throws Exception {
+        mvc.perform(get("/api/tags/suggest")
+                .param("prefix", "ja")
+                .param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+}
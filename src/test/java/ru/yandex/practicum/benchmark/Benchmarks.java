@@ -0,0 +1,38 @@
+package ru.yandex.practicum.benchmark;
+
+import java.util.Arrays;
+
+public final class Benchmarks {
+
+    private Benchmarks() { }
+
+    public static Result measure(String name, int warmup, int iterations, Runnable action) {
+        for (int i = 0; i < warmup; i++) action.run();
+
+        long[] samples = new long[iterations];
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            action.run();
+            samples[i] = System.nanoTime() - t0;
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(samples);
+        Result result = new Result(
+            name,
+            samples[iterations / 2] / 1_000,
+            samples[Math.min(iterations - 1, (int) (iterations * 0.99))] / 1_000,
+            iterations * 1_000_000_000.0 / elapsed
+        );
+        System.out.println(result);
+        return result;
+    }
+
+    public record Result(String name, long p50Micros, long p99Micros, double opsPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("%-60s p50=%8d us  p99=%8d us  %10.1f ops/s", name, p50Micros, p99Micros, opsPerSecond);
+        }
+    }
+}
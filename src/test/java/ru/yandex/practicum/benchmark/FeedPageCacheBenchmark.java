@@ -0,0 +1,38 @@
+package ru.yandex.practicum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.yandex.practicum.e2e.AbstractE2eTest;
+import ru.yandex.practicum.service.PostService;
+
+import java.util.Map;
+
+@Tag("benchmark")
+public class FeedPageCacheBenchmark extends AbstractE2eTest {
+
+    private static final int POSTS = 100_000;
+
+    @Autowired private PostService postService;
+
+    @Test
+    void feedFirstPages_uncached_vsCached() {
+        jdbc.update("""
+            INSERT INTO posts (title, text)
+            SELECT 'post ' || g, repeat('x', 500)
+            FROM generate_series(1, :n) g
+            """, Map.of("n", POSTS));
+        jdbc.getJdbcTemplate().execute("ANALYZE posts");
+
+        Benchmarks.measure("feed pages 1-3, cache cleared each run", 20, 300, () -> {
+            postPageCache.clear();
+            for (int page = 1; page <= 3; page++) postService.search("", page, 10);
+        });
+
+        Benchmarks.measure("feed pages 1-3, cached", 100, 10_000, () -> {
+            for (int page = 1; page <= 3; page++) postService.search("", page, 10);
+        });
+
+        System.out.println(postPageCache.stats());
+    }
+}
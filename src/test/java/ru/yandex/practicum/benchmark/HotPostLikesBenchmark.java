@@ -0,0 +1,87 @@
+package ru.yandex.practicum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import ru.yandex.practicum.e2e.AbstractE2eTest;
+import ru.yandex.practicum.repository.posts.PostRepository;
+import ru.yandex.practicum.service.LikeBuffer;
+import ru.yandex.practicum.service.PostService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@TestPropertySource(properties = {
+    "likes.write-behind.enabled=true",
+    "likes.write-behind.flush-interval-ms=100"
+})
+public class HotPostLikesBenchmark extends AbstractE2eTest {
+
+    private static final int THREADS = 16;
+    private static final int LIKES_PER_THREAD = 2_000;
+
+    private static final String SINGLE_ROW_LIKE_SQL = """
+        UPDATE posts
+        SET likes_count = likes_count + 1,
+            updated_at = now()
+        WHERE id = :id
+        RETURNING likes_count
+        """;
+
+    @Autowired private PostService postService;
+    @Autowired private PostRepository postRepository;
+    @Autowired private LikeBuffer likeBuffer;
+
+    @Test
+    void singleHotPost_rowUpdatePerLike_vsWriteBehind() throws Exception {
+        long direct = postRepository.insert("hot direct", "x");
+        long buffered = postRepository.insert("hot buffered", "x");
+
+        run("sharded counter per like", THREADS, postRepository::incrementLikes, direct);
+        run("write-behind LongAdder + batched flush", THREADS, postService::incrementLikes, buffered);
+
+        likeBuffer.flush();
+        assertEquals(THREADS * LIKES_PER_THREAD, postRepository.getLikesCount(direct));
+        assertEquals(THREADS * LIKES_PER_THREAD, postRepository.getLikesCount(buffered));
+    }
+
+    @Test
+    void singleHotPost_singleRowUpdate_vsLikeShards_byConnections() throws Exception {
+        for (int threads : new int[] {1, 4, 8}) {
+            long row = postRepository.insert("hot row " + threads, "x");
+            long sharded = postRepository.insert("hot shards " + threads, "x");
+
+            run("UPDATE posts row per like", threads,
+                id -> jdbc.queryForObject(SINGLE_ROW_LIKE_SQL, Map.of("id", id), Integer.class), row);
+            run("post_like_shards upsert per like", threads, postRepository::incrementLikes, sharded);
+
+            likeShardRollup.rollup();
+            assertEquals(threads * LIKES_PER_THREAD, postRepository.getLikesCount(row));
+            assertEquals(threads * LIKES_PER_THREAD, postRepository.getLikesCount(sharded));
+        }
+    }
+
+    private static void run(String name, int threads, LongConsumer like, long postId) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < LIKES_PER_THREAD; i++) like.accept(postId);
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-60s %2d threads  %10.1f likes/s%n", name, threads, threads * LIKES_PER_THREAD / seconds);
+    }
+}
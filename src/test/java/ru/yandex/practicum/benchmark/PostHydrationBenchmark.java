@@ -0,0 +1,132 @@
+package ru.yandex.practicum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.comments.CommentRepository;
+import ru.yandex.practicum.repository.posts.PostRepository;
+import ru.yandex.practicum.repository.tags.TagRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+@Tag("benchmark")
+public class PostHydrationBenchmark extends AbstractRepositoryTest {
+
+    private static final int POSTS = 10_000;
+    private static final int TAGS = 200;
+    private static final int TAGS_PER_POST = 5;
+    private static final int PAGE = 20;
+
+    private static final String POST_SQL = "SELECT id, title, text, likes_count FROM posts WHERE id = :id";
+    private static final String COMMENTS_COUNT_SQL = "SELECT COUNT(*) FROM comments WHERE post_id = :id";
+    private static final String TAGS_SQL = """
+        SELECT t.name
+        FROM post_tags pt
+        JOIN tags t ON t.id = pt.tag_id
+        WHERE pt.post_id = :id
+        ORDER BY t.name
+        """;
+
+    private static final String PAGE_SQL = "SELECT id, title, text, likes_count FROM posts WHERE id = ANY(:ids)";
+    private static final String PAGE_COMMENTS_COUNT_SQL = """
+        SELECT post_id, COUNT(*) FROM comments WHERE post_id = ANY(:ids) GROUP BY post_id
+        """;
+    private static final String PAGE_TAGS_SQL = """
+        SELECT pt.post_id, t.name
+        FROM post_tags pt
+        JOIN tags t ON t.id = pt.tag_id
+        WHERE pt.post_id = ANY(:ids)
+        ORDER BY pt.post_id, t.name
+        """;
+
+    private static final String JSON_AGG_SQL = """
+        SELECT p.id, p.title, p.text, p.likes_count,
+               (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) AS comments_count,
+               (SELECT COALESCE(json_agg(t.name ORDER BY t.name), '[]'::json)
+                FROM post_tags pt
+                JOIN tags t ON t.id = pt.tag_id
+                WHERE pt.post_id = p.id) AS tags
+        FROM posts p
+        WHERE p.id = ANY(:ids)
+        """;
+
+    @Autowired private NamedParameterJdbcTemplate jdbc;
+    @Autowired private PostRepository postRepository;
+    @Autowired private TagRepository tagRepository;
+    @Autowired private CommentRepository commentRepository;
+
+    @Test
+    void singlePostAndPage_multiQuery_vsJsonAgg_vsDenormalizedColumns() {
+        long[] ids = seedPosts();
+        long hot = ids[0];
+        var hotParams = new MapSqlParameterSource("id", hot);
+        var hotArray = new MapSqlParameterSource("ids", new SqlArrayValue("bigint", hot));
+
+        Benchmarks.measure("post, 3 queries (row + COUNT + tag join)", 100, 2_000, () -> {
+            jdbc.queryForMap(POST_SQL, hotParams);
+            jdbc.queryForObject(COMMENTS_COUNT_SQL, hotParams, Integer.class);
+            jdbc.queryForList(TAGS_SQL, hotParams, String.class);
+        });
+        Benchmarks.measure("post, 1 query (json_agg + COUNT subquery)", 100, 2_000, () ->
+            jdbc.queryForList(JSON_AGG_SQL, hotArray)
+        );
+        Benchmarks.measure("post, 1 query (comments_count + tag_names columns)", 100, 2_000, () ->
+            postRepository.findById(hot)
+        );
+
+        List<Long> page = LongStream.of(ids).limit(PAGE).boxed().toList();
+        var pageParams = new MapSqlParameterSource("ids", new SqlArrayValue("bigint", page.toArray()));
+        LongList pageIds = LongList.wrap(LongStream.of(ids).limit(PAGE).toArray());
+
+        Benchmarks.measure("page of " + PAGE + ", 3 queries", 50, 1_000, () -> {
+            jdbc.queryForList(PAGE_SQL, pageParams);
+            jdbc.queryForList(PAGE_COMMENTS_COUNT_SQL, pageParams);
+            jdbc.queryForList(PAGE_TAGS_SQL, pageParams);
+        });
+        Benchmarks.measure("page of " + PAGE + ", 1 query (json_agg)", 50, 1_000, () ->
+            jdbc.queryForList(JSON_AGG_SQL, pageParams)
+        );
+        Benchmarks.measure("page of " + PAGE + ", 1 query (denormalized columns)", 50, 1_000, () ->
+            postRepository.findPreviewsByIds(pageIds)
+        );
+    }
+
+    private long[] seedPosts() {
+        jdbc.update("""
+            INSERT INTO tags (name)
+            SELECT 'tag-' || g FROM generate_series(1, :n) g
+            """, Map.of("n", TAGS));
+        jdbc.update("""
+            INSERT INTO posts (title, text)
+            SELECT 'Post ' || g, repeat('body ', 200)
+            FROM generate_series(1, :n) g
+            """, Map.of("n", POSTS));
+        jdbc.update("""
+            INSERT INTO post_tags (post_id, tag_id)
+            SELECT p.id, t.id
+            FROM posts p
+            CROSS JOIN generate_series(0, :perPost - 1) k
+            JOIN tags t ON t.name = 'tag-' || (1 + (p.id * 7 + k * 13) % :tags)
+            ON CONFLICT DO NOTHING
+            """, Map.of("perPost", TAGS_PER_POST, "tags", TAGS));
+        jdbc.update("""
+            INSERT INTO comments (post_id, text)
+            SELECT p.id, 'comment'
+            FROM (SELECT id FROM posts ORDER BY id DESC LIMIT :page) p
+            CROSS JOIN generate_series(1, 2000)
+            """, Map.of("page", PAGE));
+        tagRepository.repairTagNames();
+        commentRepository.repairCommentsCounts();
+        jdbc.getJdbcTemplate().execute("ANALYZE");
+
+        return jdbc.queryForList("SELECT id FROM posts ORDER BY id DESC", Map.of(), Long.class)
+            .stream().mapToLong(Long::longValue).toArray();
+    }
+}
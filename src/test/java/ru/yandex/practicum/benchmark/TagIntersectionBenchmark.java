@@ -0,0 +1,74 @@
+package ru.yandex.practicum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.posts.PostRepository;
+import ru.yandex.practicum.repository.tags.TagPostings;
+
+import java.util.List;
+import java.util.Map;
+
+@Tag("benchmark")
+@TestPropertySource(properties = "search.tags=bitmap")
+public class TagIntersectionBenchmark extends AbstractRepositoryTest {
+
+    private static final int POSTS = 500_000;
+    private static final List<List<String>> QUERIES = List.of(
+        List.of("java", "spring"),
+        List.of("java", "spring", "db"),
+        List.of("java", "rare")
+    );
+
+    @Autowired private NamedParameterJdbcTemplate jdbc;
+    @Autowired private PostRepository postRepository;
+    @Autowired private TagPostings postings;
+
+    @Test
+    void multiTag_groupByHaving_vsBitmapIntersection() {
+        seedPostsWithTags();
+        postings.rebuild();
+
+        TagPostings.Stats stats = postings.stats();
+        System.out.printf("tag postings: %d tags, %d links, %d bytes, %d bytes per million links%n",
+            stats.tags(), stats.links(), stats.bytes(), stats.bytesPerMillionLinks());
+
+        for (List<String> tags : QUERIES) {
+            Benchmarks.measure("SQL GROUP BY/HAVING: " + tags, 3, 20, () -> {
+                postRepository.countBySearch("", tags);
+                postRepository.searchPage("", tags, PostSort.NEWEST, 0, 10);
+            });
+            Benchmarks.measure("bitmap intersection: " + tags, 100, 1_000, () -> {
+                var matched = postings.postsWithAllTags(tags);
+                matched.cardinality();
+                matched.toArrayDescending(0, 10);
+            });
+        }
+    }
+
+    private void seedPostsWithTags() {
+        jdbc.update("""
+            INSERT INTO posts (title, text)
+            SELECT 'post ' || g, 'x'
+            FROM generate_series(1, :n) g
+            """, Map.of("n", POSTS));
+        jdbc.getJdbcTemplate().execute("""
+            INSERT INTO tags (name) VALUES ('java'), ('spring'), ('db'), ('rare')
+            ON CONFLICT (name) DO NOTHING
+            """);
+        jdbc.getJdbcTemplate().execute("""
+            INSERT INTO post_tags (post_id, tag_id)
+            SELECT p.id, t.id
+            FROM posts p
+            JOIN tags t ON (t.name = 'java' AND p.id % 2 = 0)
+                        OR (t.name = 'spring' AND p.id % 3 = 0)
+                        OR (t.name = 'db' AND p.id % 5 = 0)
+                        OR (t.name = 'rare' AND p.id % 1000 = 0)
+            """);
+        jdbc.getJdbcTemplate().execute("ANALYZE posts, post_tags, tags");
+    }
+}
@@ -0,0 +1,60 @@
+package ru.yandex.practicum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.repository.tags.TagSuggestions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.mock;
+
+@Tag("benchmark")
+public class TagSuggestBenchmark {
+
+    private static final int TAGS = 100_000;
+    private static final int READERS = 8;
+    private static final String[] PREFIXES = {"a", "ja", "tag-1", "tag-42", "sp", "x"};
+
+    @Test
+    void suggest_underConcurrentReadsAndWrites() throws Exception {
+        Map<String, Integer> postsCountByTag = new HashMap<>();
+        for (int i = 0; i < TAGS; i++) postsCountByTag.put("tag-" + i, 1);
+        postsCountByTag.put("java", TAGS / 2);
+        postsCountByTag.put("spring", TAGS / 2);
+
+        TagSuggestions suggestions = new TagSuggestions(mock(NamedParameterJdbcTemplate.class));
+        suggestions.load(postsCountByTag);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> load = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            load.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    suggestions.suggest(PREFIXES[ThreadLocalRandom.current().nextInt(PREFIXES.length)], 10);
+                }
+            }));
+        }
+        load.add(Thread.ofPlatform().start(() -> {
+            long postId = TAGS;
+            while (running.get()) {
+                suggestions.onTagsReplaced(postId++, List.of(), List.of("tag-" + (postId % TAGS)));
+            }
+        }));
+
+        try {
+            for (String prefix : PREFIXES) {
+                Benchmarks.measure("suggest '" + prefix + "' with " + READERS + " readers + writer", 1_000, 20_000,
+                    () -> suggestions.suggest(prefix, 10));
+            }
+        } finally {
+            running.set(false);
+            for (Thread t : load) t.join();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.posts.PostRepository;
+
+import java.util.List;
+import java.util.Map;
+
+@Tag("benchmark")
+public class TitleSearchBenchmark extends AbstractRepositoryTest {
+
+    private static final int POSTS = 1_000_000;
+    private static final List<String> QUERIES = List.of("spring", "c0ffee", "ab12");
+
+    private static final String CATCH_ALL_COUNT_SQL = """
+        SELECT COUNT(*)
+        FROM posts p
+        WHERE (:ts = '' OR lower(p.title) LIKE '%' || lower(:ts) || '%')
+        """;
+
+    private static final String CATCH_ALL_PAGE_SQL = """
+        SELECT p.id, p.title, p.text, p.likes_count
+        FROM posts p
+        WHERE (:ts = '' OR lower(p.title) LIKE '%' || lower(:ts) || '%')
+        ORDER BY p.id DESC
+        OFFSET 0
+        LIMIT 10
+        """;
+
+    @Autowired private NamedParameterJdbcTemplate jdbc;
+    @Autowired private PostRepository postRepository;
+
+    @Test
+    void titleSubstring_catchAllSeqScan_vsTrigramIndex() {
+        seedPosts();
+
+        for (String ts : QUERIES) {
+            Benchmarks.measure("trigram index, split SQL: '" + ts + "'", 5, 50, () -> {
+                postRepository.countBySearch(ts, List.of());
+                postRepository.searchPage(ts, List.of(), PostSort.NEWEST, 0, 10);
+            });
+        }
+
+        jdbc.getJdbcTemplate().execute("DROP INDEX idx_posts_title_trgm");
+
+        for (String ts : QUERIES) {
+            var params = new MapSqlParameterSource("ts", ts);
+            Benchmarks.measure("no index, catch-all predicate: '" + ts + "'", 2, 10, () -> {
+                jdbc.queryForObject(CATCH_ALL_COUNT_SQL, params, Integer.class);
+                jdbc.queryForList(CATCH_ALL_PAGE_SQL, params);
+            });
+        }
+    }
+
+    private void seedPosts() {
+        jdbc.update("""
+            INSERT INTO posts (title, text)
+            SELECT (ARRAY['Java', 'Spring', 'Kotlin', 'Postgres', 'Docker'])[1 + g % 5] || ' ' || md5(g::text),
+                   'x'
+            FROM generate_series(1, :n) g
+            """, Map.of("n", POSTS));
+        jdbc.getJdbcTemplate().execute("ANALYZE posts");
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.ComponentScan;
 import ru.yandex.practicum.repository.comments.CommentRepository;
 import ru.yandex.practicum.repository.posts.PostRepository;
 import ru.yandex.practicum.repository.tags.TagRepository;
+import ru.yandex.practicum.repository.tags.TagSuggestions;
 import ru.yandex.practicum.storage.PostImageStorage;
 
 import static org.mockito.Mockito.mock;
@@ -34,6 +35,11 @@ public class ServiceTestConfiguration {
         return mock(TagRepository.class);
     }
 
+    @Bean
+    public TagSuggestions tagSuggestions() {
+        return mock(TagSuggestions.class);
+    }
+
     @Bean
     public PostImageStorage postImageStorage() {
         return mock(PostImageStorage.class);
@@ -9,6 +9,12 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.yandex.practicum.configuration.PostgresTestConfiguration;
+import ru.yandex.practicum.repository.tags.TagDictionary;
+import ru.yandex.practicum.repository.tags.TagSuggestions;
+import ru.yandex.practicum.service.LikeShardRollup;
+import ru.yandex.practicum.service.PostCache;
+import ru.yandex.practicum.service.PostPageCache;
+import ru.yandex.practicum.service.SearchTotals;
 import ru.yandex.practicum.storage.InMemoryPostImageStorage;
 import tools.jackson.databind.ObjectMapper;
 
@@ -22,6 +28,12 @@ public abstract class AbstractE2eTest {
     @Autowired protected ObjectMapper objectMapper;
     @Autowired protected NamedParameterJdbcTemplate jdbc;
     @Autowired protected InMemoryPostImageStorage postImageStorage;
+    @Autowired protected SearchTotals searchTotals;
+    @Autowired protected TagDictionary tagDictionary;
+    @Autowired protected TagSuggestions tagSuggestions;
+    @Autowired protected PostPageCache postPageCache;
+    @Autowired protected PostCache postCache;
+    @Autowired protected LikeShardRollup likeShardRollup;
 
     @BeforeEach
     void beforeEach() {
@@ -35,5 +47,10 @@ public abstract class AbstractE2eTest {
             """);
 
         postImageStorage.clear();
+        searchTotals.clear();
+        tagDictionary.clear();
+        tagSuggestions.clear();
+        postPageCache.clear();
+        postCache.clear();
     }
 }
@@ -147,6 +147,92 @@ public class PostE2eTest extends AbstractE2eTest {
             .andExpect(jsonPath("$.lastPage", is(2)));
     }
 
+    @Test
+    void searchFullText_rankedByRelevance() throws Exception {
+        int dense = createPost("Postgres", "postgres indexes and postgres plans", List.of("db"));
+        int sparse = createPost("Notes", "a short note on postgres", List.of("db"));
+        createPost("Other", "nothing relevant", List.of("db"));
+
+        mvc.perform(get("/api/posts")
+                .param("search", "postgres #db")
+                .param("mode", "FULL_TEXT")
+                .param("sort", "RANK")
+                .param("pageNumber", "1")
+                .param("pageSize", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts", hasSize(2)))
+            .andExpect(jsonPath("$.posts[0].id", is(dense)))
+            .andExpect(jsonPath("$.posts[1].id", is(sparse)));
+
+        mvc.perform(get("/api/posts")
+                .param("search", "postgres")
+                .param("sort", "RANK")
+                .param("pageNumber", "1")
+                .param("pageSize", "10"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchSortedByLikes_invalidatesCachedPageOnRollup() throws Exception {
+        int p1 = createPost("One", "x", List.of());
+        int p2 = createPost("Two", "x", List.of());
+        mvc.perform(post("/api/posts/{id}/likes", p1)).andExpect(status().isOk());
+        likeShardRollup.rollup();
+
+        mvc.perform(get("/api/posts")
+                .param("search", "")
+                .param("sort", "likes")
+                .param("pageNumber", "1")
+                .param("pageSize", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts[0].id", is(p1)))
+            .andExpect(jsonPath("$.posts[1].id", is(p2)));
+
+        mvc.perform(post("/api/posts/{id}/likes", p2)).andExpect(status().isOk());
+        mvc.perform(post("/api/posts/{id}/likes", p2)).andExpect(status().isOk());
+        likeShardRollup.rollup();
+
+        mvc.perform(get("/api/posts")
+                .param("search", "")
+                .param("sort", "likes")
+                .param("pageNumber", "1")
+                .param("pageSize", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts[0].id", is(p2)))
+            .andExpect(jsonPath("$.posts[1].id", is(p1)));
+    }
+
+    // ========================= GET /api/posts?after= (cursor paging) =========================
+
+    @Test
+    void searchAfter_walksAllPagesWithCursor() throws Exception {
+        int p1 = createPost("Hello one", "x", List.of("java"));
+        createPost("Other", "x", List.of("java"));
+        int p3 = createPost("Hello two", "x", List.of("java"));
+
+        String firstJson = mvc.perform(get("/api/posts")
+                .param("search", "hello #java")
+                .param("after", "")
+                .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts", hasSize(1)))
+            .andExpect(jsonPath("$.posts[0].id", is(p3)))
+            .andExpect(jsonPath("$.hasNext", is(true)))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String cursor = JsonPath.read(firstJson, "$.nextCursor");
+
+        mvc.perform(get("/api/posts")
+                .param("after", cursor)
+                .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts", hasSize(1)))
+            .andExpect(jsonPath("$.posts[0].id", is(p1)))
+            .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
     // ========================= helpers =========================
 
     private int createPost(String title, String text, List<String> tags) throws Exception {
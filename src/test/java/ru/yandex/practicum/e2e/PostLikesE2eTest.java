@@ -43,6 +43,25 @@ public class PostLikesE2eTest extends AbstractE2eTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    void addLikes_batchAppliesIncrements_andReportsUnknownIds() throws Exception {
+        int p1 = createPost("p1", "x", List.of());
+        int p2 = createPost("p2", "x", List.of());
+        mvc.perform(post("/api/posts/" + p2 + "/likes")).andExpect(status().isOk());
+
+        mvc.perform(post("/api/posts/likes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"increments\": {\"%d\": 3, \"%d\": 2, \"999\": 1}}".formatted(p1, p2)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likesCounts['" + p1 + "']", is(3)))
+            .andExpect(jsonPath("$.likesCounts['" + p2 + "']", is(3)))
+            .andExpect(jsonPath("$.unknownPostIds[0]", is(999)));
+
+        mvc.perform(get("/api/posts/" + p2))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likesCount", is(3)));
+    }
+
     private int createPost(String title, String text, List<String> tags) throws Exception {
         PostCreateRequest req = new PostCreateRequest(title, text, tags);
 
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongListTest {
+
+    // ========================= add / get =========================
+
+    @Test
+    void add_growsPastInitialCapacity() {
+        LongList list = new LongList(2);
+        for (long i = 0; i < 100; i++) list.add(i * 3);
+
+        assertEquals(100, list.size());
+        assertEquals(0, list.get(0));
+        assertEquals(297, list.get(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(100));
+    }
+
+    @Test
+    void empty_hasNoElements() {
+        assertTrue(new LongList().isEmpty());
+        assertArrayEquals(new long[0], new LongList().toArray());
+    }
+
+    // ========================= subList / equals =========================
+
+    @Test
+    void subList_copiesRange() {
+        LongList list = LongList.of(5, 4, 3, 2, 1);
+
+        assertEquals(LongList.of(4, 3), list.subList(1, 3));
+        assertEquals(new LongList(), list.subList(5, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(3, 6));
+    }
+
+    @Test
+    void equals_comparesOnlyUsedElements() {
+        LongList grown = new LongList(16);
+        grown.add(1);
+        grown.add(2);
+
+        assertEquals(LongList.of(1, 2), grown);
+        assertEquals(LongList.of(1, 2).hashCode(), grown.hashCode());
+        assertNotEquals(LongList.of(2, 1), grown);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LongObjectMapTest {
+
+    // ========================= put / get =========================
+
+    @Test
+    void put_get_replace() {
+        LongObjectMap<String> map = new LongObjectMap<>(2);
+
+        assertNull(map.put(7, "a"));
+        assertEquals("a", map.put(7, "b"));
+
+        assertEquals("b", map.get(7));
+        assertNull(map.get(8));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void put_resizesAndKeepsCollidingKeys() {
+        LongObjectMap<Long> map = new LongObjectMap<>(1);
+        for (long id = 0; id < 10_000; id++) map.put(id << 16, id);
+
+        assertEquals(10_000, map.size());
+        for (long id = 0; id < 10_000; id++) assertEquals(id, map.get(id << 16));
+        assertNull(map.get(10_000L << 16));
+    }
+
+    @Test
+    void get_supportsZeroAndNegativeKeys() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        map.put(0, "zero");
+        map.put(-1, "minus one");
+
+        assertEquals("zero", map.get(0));
+        assertEquals("minus one", map.get(-1));
+    }
+}
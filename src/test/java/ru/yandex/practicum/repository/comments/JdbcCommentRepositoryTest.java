@@ -2,7 +2,10 @@ package ru.yandex.practicum.repository.comments;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
 import ru.yandex.practicum.domain.Comment;
 import ru.yandex.practicum.exception.not_found.CommentNotFoundException;
 import ru.yandex.practicum.repository.AbstractRepositoryTest;
@@ -154,51 +157,43 @@ public class JdbcCommentRepositoryTest extends AbstractRepositoryTest {
         assertThrows(CommentNotFoundException.class, () -> commentRepository.delete(p2, id));
     }
 
-    // ========================= countByPostId =========================
+    // ========================= repairCommentsCounts =========================
 
     @Test
-    void countByPostId_countsOnlyThatPost() {
+    void repairCommentsCounts_fixesOnlyDriftedPosts() {
         long p1 = insertPost("p1");
         long p2 = insertPost("p2");
+        long p3 = insertPost("p3");
 
         commentRepository.insert(p1, "a");
         commentRepository.insert(p1, "b");
         commentRepository.insert(p2, "x");
+        jdbc.update("UPDATE posts SET comments_count = 7 WHERE id = :id", Map.of("id", p1));
+        jdbc.update("UPDATE posts SET comments_count = 1 WHERE id = :id", Map.of("id", p3));
 
-        assertEquals(2, commentRepository.countByPostId(p1));
-        assertEquals(1, commentRepository.countByPostId(p2));
-    }
+        assertEquals(2, commentRepository.repairCommentsCounts());
 
-    @Test
-    void countByPostId_whenNone_returnsZero() {
-        long postId = insertPost("p");
-        assertEquals(0, commentRepository.countByPostId(postId));
+        assertEquals(2, commentsCount(p1));
+        assertEquals(1, commentsCount(p2));
+        assertEquals(0, commentsCount(p3));
+        assertEquals(0, commentRepository.repairCommentsCounts());
     }
 
-    // ========================= countByPostIds =========================
-
     @Test
-    void countByPostIds_returnsMapOnlyForIdsWithComments() {
-        long p1 = insertPost("p1");
-        long p2 = insertPost("p2");
-        long p3 = insertPost("p3");
-
-        commentRepository.insert(p1, "a");
-        commentRepository.insert(p1, "b");
-        commentRepository.insert(p2, "x");
+    void schemaScript_backfillsCommentsCountOfExistingPosts() {
+        long commented = insertPost("commented");
+        long quiet = insertPost("quiet");
+        commentRepository.insert(commented, "a");
+        commentRepository.insert(commented, "b");
+        jdbc.update("UPDATE posts SET comments_count = 0", Map.of());
 
-        Map<Long, Integer> m = commentRepository.countByPostIds(List.of(p1, p2, p3));
+        jdbc.getJdbcTemplate().execute((ConnectionCallback<Void>) con -> {
+            ScriptUtils.executeSqlScript(con, new ClassPathResource("schema.sql"));
+            return null;
+        });
 
-        assertEquals(2, m.size());
-        assertEquals(2, m.get(p1));
-        assertEquals(1, m.get(p2));
-        assertFalse(m.containsKey(p3));
-    }
-
-    @Test
-    void countByPostIds_emptyInput_returnsEmptyMap() {
-        assertEquals(Map.of(), commentRepository.countByPostIds(List.of()));
-        assertEquals(Map.of(), commentRepository.countByPostIds(null));
+        assertEquals(2, commentsCount(commented));
+        assertEquals(0, commentsCount(quiet));
     }
 
     // ========================= helpers =========================
@@ -212,4 +207,13 @@ public class JdbcCommentRepositoryTest extends AbstractRepositoryTest {
         if (id == null) throw new IllegalStateException("post id is null");
         return id;
     }
-}
\ No newline at end of file
+
+    private int commentsCount(long postId) {
+        Integer count = jdbc.queryForObject(
+            "SELECT comments_count FROM posts WHERE id = :id",
+            Map.of("id", postId),
+            Integer.class
+        );
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.yandex.practicum.repository.diagnostics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+    "diagnostics.slow-queries.capacity=2",
+    "diagnostics.slow-queries.threshold-ms=0",
+    "diagnostics.slow-queries.explain-threshold-ms=0"
+})
+public class SlowQueryLogTest extends AbstractRepositoryTest {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SlowQueryLog slowQueries;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private NamedParameterJdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        slowQueries.clear();
+        jdbc = new TimedNamedParameterJdbcTemplate(jdbcTemplate, slowQueries);
+    }
+
+    // ========================= record =========================
+
+    @Test
+    void record_capturesSqlAndBoundParameters() {
+        jdbc.queryForObject(
+            "SELECT count(*) FROM posts WHERE title LIKE :pattern AND id > :id",
+            new MapSqlParameterSource().addValue("pattern", "%x%").addValue("id", 7L),
+            Long.class
+        );
+
+        List<SlowQuery> captured = slowQueries.slowest();
+        assertEquals(1, captured.size());
+        assertEquals("SELECT count(*) FROM posts WHERE title LIKE :pattern AND id > :id", captured.getFirst().sql());
+        assertEquals(List.of("%x%", "7"), captured.getFirst().parameters());
+    }
+
+    @Test
+    void record_rendersCollectionParameters() {
+        jdbc.queryForList(
+            "SELECT id FROM posts WHERE id IN (:ids)",
+            new MapSqlParameterSource("ids", List.of(1L, 2L)),
+            Long.class
+        );
+
+        assertEquals(List.of("[1, 2]"), slowQueries.slowest().getFirst().parameters());
+    }
+
+    @Test
+    void record_skipsStatementsBelowThreshold() {
+        try (SlowQueryLog strict = new SlowQueryLog(jdbcTemplate, transactionManager, 2, 60_000, 60_000)) {
+            new TimedNamedParameterJdbcTemplate(jdbcTemplate, strict)
+                .queryForObject("SELECT :x", new MapSqlParameterSource("x", 1), Integer.class);
+
+            assertEquals(List.of(), strict.slowest());
+        }
+    }
+
+    @Test
+    void record_keepsSlowestEntries_orderedByDuration() {
+        var params = new MapSqlParameterSource();
+        slowQueries.record("q1", params, List.of(), 300);
+        slowQueries.record("q2", params, List.of(), 900);
+        slowQueries.record("q3", params, List.of(), 100);
+        slowQueries.record("q4", params, List.of(), 500);
+
+        List<SlowQuery> captured = slowQueries.slowest();
+        assertEquals(List.of("q2", "q4"), captured.stream().map(SlowQuery::sql).toList());
+    }
+
+    @Test
+    void record_attachesExplainPlanAsynchronously() throws InterruptedException {
+        jdbc.queryForObject(
+            "SELECT count(*) FROM posts WHERE id > :id",
+            new MapSqlParameterSource("id", 0L),
+            Long.class
+        );
+
+        String plan = null;
+        for (int i = 0; i < 50 && plan == null; i++) {
+            plan = slowQueries.slowest().getFirst().plan();
+            if (plan == null) Thread.sleep(100);
+        }
+        assertNotNull(plan);
+        assertTrue(plan.contains("actual time"), plan);
+    }
+
+    @Test
+    void record_explainsDataModifyingCteWithoutExecuting() throws InterruptedException {
+        jdbc.queryForList("""
+            WITH bump AS (
+                UPDATE posts SET likes_count = likes_count + 1 WHERE id = :id RETURNING id
+            )
+            SELECT id FROM bump
+            """, new MapSqlParameterSource("id", -1L), Long.class);
+
+        String plan = null;
+        for (int i = 0; i < 50 && plan == null; i++) {
+            plan = slowQueries.slowest().getFirst().plan();
+            if (plan == null) Thread.sleep(100);
+        }
+        assertNotNull(plan);
+        assertTrue(plan.contains("Update on posts"), plan);
+        assertFalse(plan.contains("actual time"), plan);
+    }
+
+    @Test
+    void record_doesNotExplainUtilityStatements() throws InterruptedException {
+        jdbc.update("ANALYZE posts", new MapSqlParameterSource());
+
+        Thread.sleep(300);
+        assertNull(slowQueries.slowest().getFirst().plan());
+    }
+
+    // ========================= explainStatement =========================
+
+    @Test
+    void explainStatement_analyzesReadsOnly() {
+        assertEquals("EXPLAIN (ANALYZE, BUFFERS) SELECT updated_at FROM posts",
+            SlowQueryLog.explainStatement("SELECT updated_at FROM posts"));
+        assertEquals("EXPLAIN WITH c AS (INSERT INTO tags(name) VALUES ('a') RETURNING id) SELECT id FROM c",
+            SlowQueryLog.explainStatement("WITH c AS (INSERT INTO tags(name) VALUES ('a') RETURNING id) SELECT id FROM c"));
+        assertEquals("EXPLAIN DELETE FROM comments WHERE id = :id",
+            SlowQueryLog.explainStatement("DELETE FROM comments WHERE id = :id"));
+        assertNull(SlowQueryLog.explainStatement("LOCK TABLE comments IN SHARE MODE"));
+    }
+}
@@ -0,0 +1,143 @@
+package ru.yandex.practicum.repository.posts;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.tags.TagRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "search.engine=memory")
+public class InMemoryPostSearchIndexTest extends AbstractRepositoryTest {
+
+    @Autowired private PostSearchIndex index;
+    @Autowired private PostRepository postRepository;
+    @Autowired private TagRepository tagRepository;
+
+    @BeforeEach
+    void resetIndex() {
+        index.rebuild();
+    }
+
+    // ========================= search =========================
+
+    @Test
+    void search_titleSubstring_isCaseInsensitive_ordersByIdDesc() {
+        index.index(1L, "Hello World", List.of());
+        index.index(2L, "HeLLo Java", List.of());
+        index.index(3L, "Other", List.of());
+
+        assertEquals(new SearchHits(LongList.of(2L, 1L), 2), index.search("hello", List.of(), 0, 10));
+        assertEquals(new SearchHits(LongList.of(1L), 1), index.search("o w", List.of(), 0, 10));
+        assertEquals(SearchHits.EMPTY, index.search("missing", List.of(), 0, 10));
+    }
+
+    @Test
+    void search_tags_requireAllTags() {
+        index.index(1L, "P1", List.of("java", "spring"));
+        index.index(2L, "P2", List.of("java"));
+        index.index(3L, "P3", List.of("db", "java", "spring"));
+
+        assertEquals(new SearchHits(LongList.of(3L, 1L), 2), index.search("", List.of("java", "spring"), 0, 10));
+        assertEquals(SearchHits.EMPTY, index.search("", List.of("java", "unknown"), 0, 10));
+    }
+
+    @Test
+    void search_paginatesAndReportsTotal() {
+        for (long id = 1; id <= 5; id++) index.index(id, "post " + id, List.of());
+
+        assertEquals(new SearchHits(LongList.of(3L, 2L), 5), index.search("post", List.of(), 2, 2));
+        assertEquals(new SearchHits(LongList.of(), 5), index.search("", List.of(), 10, 2));
+    }
+
+    @Test
+    void search_emptyQuery_pagesAllPostsByIdDesc() {
+        for (long id = 1; id <= 5; id++) index.index(id, "post " + id, List.of());
+        index.remove(4L);
+
+        assertEquals(new SearchHits(LongList.of(5L, 3L), 4), index.search("", List.of(), 0, 2));
+        assertEquals(new SearchHits(LongList.of(2L, 1L), 4), index.search(null, null, 2, 2));
+    }
+
+    @Test
+    void index_reindexReplacesPreviousVersion_removeDropsPost() {
+        index.index(1L, "Hello", List.of("a"));
+        index.index(1L, "Bye", List.of("b"));
+
+        assertEquals(SearchHits.EMPTY, index.search("hello", List.of(), 0, 10));
+        assertEquals(SearchHits.EMPTY, index.search("", List.of("a"), 0, 10));
+        assertEquals(new SearchHits(LongList.of(1L), 1), index.search("bye", List.of("b"), 0, 10));
+
+        index.remove(1L);
+        assertEquals(SearchHits.EMPTY, index.search("", List.of(), 0, 10));
+    }
+
+    // ========================= rebuild + checkConsistency =========================
+
+    @Test
+    void rebuild_loadsPostsAndTagsFromDatabase() {
+        long p1 = postRepository.insert("Hello Java", "x");
+        long p2 = postRepository.insert("Hello Spring", "x");
+        tagRepository.replaceTags(p1, List.of("java", "spring"));
+        tagRepository.replaceTags(p2, List.of("spring"));
+
+        index.rebuild();
+
+        assertEquals(new SearchHits(LongList.of(p2, p1), 2), index.search("hello", List.of("spring"), 0, 10));
+        assertTrue(index.checkConsistency().consistent());
+    }
+
+    @Test
+    void rebuild_replaysWritesMadeDuringLoad() {
+        long p1 = postRepository.insert("Hello Java", "x");
+        long p2 = postRepository.insert("Hello Spring", "x");
+        long late = p2 + 1_000;
+        InMemoryPostSearchIndex target = AopTestUtils.getTargetObject(index);
+
+        target.rebuild(() -> {
+            index.index(late, "Hello Late", List.of("late"));
+            index.remove(p1);
+        });
+
+        assertEquals(new SearchHits(LongList.of(late, p2), 2), index.search("hello", List.of(), 0, 10));
+        assertEquals(new SearchHits(LongList.of(late), 1), index.search("", List.of("late"), 0, 10));
+    }
+
+    @Test
+    void rebuild_failedLoad_keepsServingPreviousSnapshot() {
+        index.index(1L, "Hello", List.of());
+        InMemoryPostSearchIndex target = AopTestUtils.getTargetObject(index);
+
+        assertThrows(IllegalStateException.class, () -> target.rebuild(() -> {
+            index.index(2L, "Hello Again", List.of());
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(new SearchHits(LongList.of(2L, 1L), 2), index.search("hello", List.of(), 0, 10));
+    }
+
+    @Test
+    void checkConsistency_reportsDifferencesWithDatabase() {
+        long p1 = postRepository.insert("Hello", "x");
+        long p2 = postRepository.insert("World", "x");
+
+        index.index(p1, "Hello", List.of("stale-tag"));
+        index.index(999L, "Ghost", List.of());
+
+        SearchIndexConsistencyReport report = index.checkConsistency();
+
+        assertFalse(report.consistent());
+        assertEquals(List.of(p2), report.missingInIndex());
+        assertEquals(List.of(999L), report.staleInIndex());
+        assertEquals(List.of(p1), report.mismatched());
+    }
+}
@@ -3,11 +3,19 @@ package ru.yandex.practicum.repository.posts;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.domain.PostSort;
 import ru.yandex.practicum.entity.posts.PostEntity;
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
 import ru.yandex.practicum.exception.not_found.PostNotFoundException;
 import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.comments.CommentRepository;
+import ru.yandex.practicum.repository.tags.TagRepository;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,6 +26,8 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
 
     @Autowired private NamedParameterJdbcTemplate jdbc;
     @Autowired private PostRepository postRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private TagRepository tagRepository;
 
     // ========================= insert + findById =========================
 
@@ -33,6 +43,8 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         assertEquals("ttl", e.title());
         assertEquals("txt", e.text());
         assertEquals(0, e.likesCount());
+        assertEquals(0, e.commentsCount());
+        assertEquals(List.of(), e.tags());
     }
 
     @Test
@@ -40,6 +52,43 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         assertTrue(postRepository.findById(999L).isEmpty());
     }
 
+    @Test
+    void findById_readsTagNamesWrittenByReplaceTags() {
+        long id = postRepository.insert("ttl", "txt");
+        tagRepository.replaceTags(id, List.of("spring", "java"));
+
+        assertEquals(List.of("java", "spring"), postRepository.findById(id).orElseThrow().tags());
+    }
+
+    // ========================= findPreviewsByIds =========================
+
+    @Test
+    void findPreviewsByIds_keepsRequestedOrder_skipsMissing() {
+        long id1 = postRepository.insert("A", "x");
+        long id2 = postRepository.insert("B", "x");
+
+        List<PostPreviewEntity> res = postRepository.findPreviewsByIds(LongList.of(id2, 999L, id1));
+
+        assertEquals(List.of(id2, id1), res.stream().map(PostPreviewEntity::id).toList());
+    }
+
+    @Test
+    void findPreviewsByIds_emptyInput_returnsEmptyList() {
+        assertEquals(List.of(), postRepository.findPreviewsByIds(new LongList()));
+        assertEquals(List.of(), postRepository.findPreviewsByIds(null));
+    }
+
+    @Test
+    void findPreviewsByIds_truncatesTextTo129Chars() {
+        long shortId = postRepository.insert("A", "short");
+        long longId = postRepository.insert("B", "x".repeat(500));
+
+        List<PostPreviewEntity> res = postRepository.findPreviewsByIds(LongList.of(shortId, longId));
+
+        assertEquals("short", res.get(0).preview());
+        assertEquals("x".repeat(129), res.get(1).preview());
+    }
+
     // ========================= update =========================
 
     @Test
@@ -93,6 +142,96 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         assertThrows(PostNotFoundException.class, () -> postRepository.incrementLikes(999L));
     }
 
+    @Test
+    void incrementLikes_countsInShards_untilRollupFoldsThemIntoPost() {
+        long id = postRepository.insert("t", "x");
+        for (int i = 0; i < 50; i++) postRepository.incrementLikes(id);
+
+        assertEquals(50, postRepository.findById(id).orElseThrow().likesCount());
+        assertEquals(50, postRepository.findPreviewsByIds(LongList.of(id)).getFirst().likesCount());
+        assertEquals(0, likesColumn(id));
+
+        assertEquals(1, postRepository.rollupLikeShards());
+
+        assertEquals(50, likesColumn(id));
+        assertEquals(0, jdbc.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM post_like_shards", Integer.class));
+        assertEquals(50, postRepository.getLikesCount(id));
+        assertEquals(51, postRepository.incrementLikes(id));
+    }
+
+    @Test
+    void rollupLikeShards_setsUpdatedAtToLatestLike_notRollupTime() {
+        long liked = postRepository.insert("liked", "x");
+        long edited = postRepository.insert("edited", "x");
+        touch(liked, "2020-01-01T00:00:00Z");
+        touch(edited, "2022-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            postRepository.incrementLikes(liked);
+            postRepository.incrementLikes(edited);
+        }
+        jdbc.getJdbcTemplate().update("UPDATE post_like_shards SET liked_at = TIMESTAMPTZ '2021-01-01 00:00:00+00'");
+
+        assertEquals(2, postRepository.rollupLikeShards());
+
+        assertTrue(updatedAtIs(liked, "2021-01-01T00:00:00Z"));
+        assertTrue(updatedAtIs(edited, "2022-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void rollupLikeShards_nothingToFold_updatesNoPosts() {
+        postRepository.insert("t", "x");
+
+        assertEquals(0, postRepository.rollupLikeShards());
+    }
+
+    // ========================= getLikesCount + addLikes =========================
+
+    @Test
+    void addLikes_appliesDeltasInOneStatement_skipsMissing() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "x");
+        postRepository.incrementLikes(p2);
+
+        List<PostLikesCount> updated = postRepository.addLikes(LongList.of(p1, p2, 999L), LongList.of(3, 5, 1));
+
+        assertEquals(List.of(new PostLikesCount(p1, 3), new PostLikesCount(p2, 6)),
+            updated.stream().sorted(Comparator.comparingLong(PostLikesCount::postId)).toList());
+        assertEquals(3, postRepository.getLikesCount(p1));
+        assertEquals(6, postRepository.getLikesCount(p2));
+    }
+
+    @Test
+    void addLikes_writesShards_andLeavesPostRowUntilRollup() {
+        long id = postRepository.insert("A", "x");
+
+        postRepository.addLikes(LongList.of(id), LongList.of(7));
+        postRepository.addLikes(LongList.of(id), LongList.of(2));
+
+        assertEquals(0, likesColumn(id));
+        assertEquals(9, postRepository.getLikesCount(id));
+
+        assertEquals(1, postRepository.rollupLikeShards());
+        assertEquals(9, likesColumn(id));
+    }
+
+    @Test
+    void getLikesCount_missing_throws() {
+        assertThrows(PostNotFoundException.class, () -> postRepository.getLikesCount(999L));
+    }
+
+    @Test
+    void getLikesCounts_includesUnfoldedShards_skipsMissing() {
+        long p1 = postRepository.insert("t1", "x");
+        long p2 = postRepository.insert("t2", "x");
+        postRepository.incrementLikes(p2);
+        postRepository.incrementLikes(p2);
+
+        List<PostLikesCount> counts = postRepository.getLikesCounts(LongList.of(p1, p2, 999L));
+
+        assertEquals(List.of(new PostLikesCount(p1, 0), new PostLikesCount(p2, 2)),
+            counts.stream().sorted(Comparator.comparingLong(PostLikesCount::postId)).toList());
+    }
+
     // ========================= image content type =========================
 
     @Test
@@ -143,16 +282,28 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         long id2 = postRepository.insert("B", "x");
         long id3 = postRepository.insert("C", "x");
 
-        List<PostEntity> page1 = postRepository.searchPage("", List.of(), 0, 2);
+        List<PostPreviewEntity> page1 = postRepository.searchPage("", List.of(), PostSort.NEWEST, 0, 2);
         assertEquals(2, page1.size());
         assertEquals(id3, page1.get(0).id());
         assertEquals(id2, page1.get(1).id());
 
-        List<PostEntity> page2 = postRepository.searchPage("", List.of(), 2, 2);
+        List<PostPreviewEntity> page2 = postRepository.searchPage("", List.of(), PostSort.NEWEST, 2, 2);
         assertEquals(1, page2.size());
         assertEquals(id1, page2.get(0).id());
     }
 
+    @Test
+    void estimateCountBySearch_noFilters_usesPlannerStatistics() {
+        seedPostsNoTags(
+            "Java and Spring",
+            "Kotlin tips",
+            "Another post"
+        );
+        jdbc.getJdbcTemplate().execute("ANALYZE posts");
+
+        assertEquals(3, postRepository.estimateCountBySearch("", List.of()));
+    }
+
     @Test
     void countBySearch_titleSubstring_isCaseInsensitiveAndMatches() {
         seedPostsNoTags(
@@ -172,13 +323,24 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         long id2 = postRepository.insert("HeLLo Java", "x");
         postRepository.insert("Other", "x");
 
-        List<PostEntity> res = postRepository.searchPage("hello", List.of(), 0, 5);
+        List<PostPreviewEntity> res = postRepository.searchPage("hello", List.of(), PostSort.NEWEST, 0, 5);
 
         assertEquals(2, res.size());
         assertEquals(id2, res.get(0).id());
         assertEquals(id1, res.get(1).id());
     }
 
+    @Test
+    void searchPage_titleSubstring_treatsLikeWildcardsLiterally() {
+        long literal = postRepository.insert("100% snake_case", "x");
+        postRepository.insert("1000 snakeXcase", "x");
+
+        List<PostPreviewEntity> res = postRepository.searchPage("0% snake_", List.of(), PostSort.NEWEST, 0, 5);
+
+        assertEquals(List.of(literal), res.stream().map(PostPreviewEntity::id).toList());
+        assertEquals(1, postRepository.countBySearch("snake_case", List.of()));
+    }
+
     @Test
     void countBySearch_tags_matchesPostsHavingAllTags() {
         long p1 = postRepository.insert("P1", "x");
@@ -205,7 +367,7 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         linkTags(p2, List.of("java"));
         linkTags(p3, List.of("java", "spring", "db"));
 
-        List<PostEntity> res = postRepository.searchPage("", List.of("java", "spring"), 0, 5);
+        List<PostPreviewEntity> res = postRepository.searchPage("", List.of("java", "spring"), PostSort.NEWEST, 0, 5);
 
         assertEquals(2, res.size());
         assertEquals(p3, res.get(0).id());
@@ -237,13 +399,293 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
         linkTags(p2, List.of("java"));
         linkTags(p3, List.of("java", "spring", "db"));
 
-        List<PostEntity> res = postRepository.searchPage("hello", List.of("java", "spring"), 0, 5);
+        List<PostPreviewEntity> res = postRepository.searchPage("hello", List.of("java", "spring"), PostSort.NEWEST, 0, 5);
         assertEquals(1, res.size());
         assertEquals(p1, res.get(0).id());
     }
 
+    // ========================= searchAfter =========================
+
+    @Test
+    void searchAfter_seeksPastCursor_ordersByIdDesc() {
+        long id1 = postRepository.insert("A", "x");
+        long id2 = postRepository.insert("B", "x");
+        long id3 = postRepository.insert("C", "x");
+
+        List<SortedPostEntity> first = postRepository.searchAfter("", List.of(), PostSort.NEWEST, PostSortKey.FIRST, 2);
+        assertEquals(List.of(id3, id2), ids(first));
+
+        List<SortedPostEntity> second = postRepository.searchAfter("", List.of(), PostSort.NEWEST, first.getLast().key(), 2);
+        assertEquals(List.of(id1), ids(second));
+    }
+
+    @Test
+    void searchAfter_titleAndTags() {
+        long p1 = postRepository.insert("Hello Java", "x");
+        long p2 = postRepository.insert("Hello Spring", "x");
+        long p3 = postRepository.insert("Hello again", "x");
+
+        linkTags(p1, List.of("java", "spring"));
+        linkTags(p2, List.of("spring"));
+        linkTags(p3, List.of("java", "spring"));
+
+        List<SortedPostEntity> res = postRepository.searchAfter(
+            "hello", List.of("java", "spring"), PostSort.NEWEST, new PostSortKey(p3, p3), 5
+        );
+        assertEquals(List.of(p1), ids(res));
+    }
+
+    @Test
+    void searchAfter_byLikes_breaksTiesByIdAndSeeksPastKey() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "x");
+        long p3 = postRepository.insert("C", "x");
+        postRepository.incrementLikes(p1);
+        postRepository.incrementLikes(p1);
+        postRepository.incrementLikes(p3);
+        postRepository.incrementLikes(p2);
+        postRepository.rollupLikeShards();
+
+        List<SortedPostEntity> first = postRepository.searchAfter("", List.of(), PostSort.LIKES, PostSortKey.FIRST, 2);
+        assertEquals(List.of(p1, p3), ids(first));
+        assertEquals(new PostSortKey(1, p3), first.getLast().key());
+
+        List<SortedPostEntity> second = postRepository.searchAfter("", List.of(), PostSort.LIKES, first.getLast().key(), 2);
+        assertEquals(List.of(p2), ids(second));
+    }
+
+    @Test
+    void searchAfter_byLikes_ordersOnFoldedCount_untilRollup() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "x");
+        postRepository.incrementLikes(p1);
+        postRepository.rollupLikeShards();
+        postRepository.incrementLikes(p2);
+        postRepository.incrementLikes(p2);
+
+        List<SortedPostEntity> before = postRepository.searchAfter("", List.of(), PostSort.LIKES, PostSortKey.FIRST, 5);
+        assertEquals(List.of(p1, p2), ids(before));
+        assertEquals(2, before.getLast().post().likesCount());
+        assertEquals(new PostSortKey(0, p2), before.getLast().key());
+
+        PostSortKey cursor = before.getFirst().key();
+        postRepository.rollupLikeShards();
+
+        assertEquals(List.of(p2, p1), ids(postRepository.searchAfter("", List.of(), PostSort.LIKES, PostSortKey.FIRST, 5)));
+        assertEquals(List.of(), ids(postRepository.searchAfter("", List.of(), PostSort.LIKES, cursor, 5)));
+    }
+
+    @Test
+    void searchAfter_byUpdated_seeksPastTimestampKey() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "x");
+        long p3 = postRepository.insert("C", "x");
+        touch(p1, "2026-01-03");
+        touch(p2, "2026-01-01");
+        touch(p3, "2026-01-02");
+
+        List<SortedPostEntity> first = postRepository.searchAfter("", List.of(), PostSort.UPDATED, PostSortKey.FIRST, 1);
+        assertEquals(List.of(p1), ids(first));
+
+        List<SortedPostEntity> rest = postRepository.searchAfter("", List.of(), PostSort.UPDATED, first.getLast().key(), 5);
+        assertEquals(List.of(p3, p2), ids(rest));
+    }
+
+    // ========================= searchPage sorts =========================
+
+    @Test
+    void searchPage_byComments_usesMaintainedCounter() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "x");
+        long p3 = postRepository.insert("C", "x");
+        commentRepository.insert(p1, "c");
+        commentRepository.insert(p2, "c");
+        commentRepository.insert(p2, "c");
+        long removed = commentRepository.insert(p1, "c");
+        commentRepository.delete(p1, removed);
+
+        assertEquals(List.of(p2, p1, p3), postRepository.searchPage("", List.of(), PostSort.COMMENTS, 0, 5)
+            .stream().map(PostPreviewEntity::id).toList());
+        assertEquals(List.of(p2, p1, p3), postRepository.searchPageWithTotal("", List.of(), PostSort.COMMENTS, 0, 5)
+            .posts().stream().map(PostPreviewEntity::id).toList());
+    }
+
+    // ========================= searchPageWithTotal =========================
+
+    @Test
+    void searchPageWithTotal_returnsPageAndTotal() {
+        long id1 = postRepository.insert("Hello A", "x");
+        long id2 = postRepository.insert("Other", "x");
+        long id3 = postRepository.insert("Hello B", "x");
+        long id4 = postRepository.insert("Hello C", "x");
+
+        PostSearchPage page = postRepository.searchPageWithTotal("hello", List.of(), PostSort.NEWEST, 1, 1);
+
+        assertEquals(3, page.total());
+        assertEquals(1, page.offset());
+        assertEquals(List.of(id3), page.posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(List.of(id4, id3, id1), postRepository.searchPageWithTotal("hello", List.of(), PostSort.NEWEST, 0, 5)
+            .posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(4, postRepository.searchPageWithTotal("", List.of(), PostSort.NEWEST, 0, 5).total());
+        assertEquals(id2, postRepository.searchPageWithTotal("other", List.of(), PostSort.NEWEST, 0, 5).posts().getFirst().id());
+    }
+
+    @Test
+    void searchPageWithTotal_pastEnd_clampsToLastPage() {
+        long id1 = postRepository.insert("A", "x");
+        long id2 = postRepository.insert("B", "x");
+        long id3 = postRepository.insert("C", "x");
+
+        PostSearchPage page = postRepository.searchPageWithTotal("", List.of(), PostSort.NEWEST, 100, 2);
+
+        assertEquals(3, page.total());
+        assertEquals(2, page.offset());
+        assertEquals(List.of(id1), page.posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(List.of(id3, id2), postRepository.searchPageWithTotal("", List.of(), PostSort.NEWEST, 0, 2)
+            .posts().stream().map(PostPreviewEntity::id).toList());
+    }
+
+    @Test
+    void searchPageWithTotal_noMatches_returnsEmptyFirstPage() {
+        postRepository.insert("A", "x");
+
+        assertEquals(new PostSearchPage(List.of(), 0, 0), postRepository.searchPageWithTotal("missing", List.of(), PostSort.NEWEST, 40, 10));
+    }
+
+    @Test
+    void searchPageWithTotal_titleAndTags() {
+        long p1 = postRepository.insert("Hello Java", "x");
+        long p2 = postRepository.insert("Hello Spring", "x");
+        long p3 = postRepository.insert("Bye", "x");
+
+        linkTags(p1, List.of("java", "spring"));
+        linkTags(p2, List.of("spring"));
+        linkTags(p3, List.of("java", "spring"));
+
+        PostSearchPage page = postRepository.searchPageWithTotal("hello", List.of("java", "spring"), PostSort.NEWEST, 0, 5);
+
+        assertEquals(1, page.total());
+        assertEquals(List.of(p1), page.posts().stream().map(PostPreviewEntity::id).toList());
+    }
+
+    // ========================= searchPageByIds =========================
+
+    @Test
+    void searchPageByIds_filtersCandidatesByTitle_andPagesNewestFirst() {
+        long p1 = postRepository.insert("Hello one", "x");
+        long p2 = postRepository.insert("Hello two", "x");
+        long p3 = postRepository.insert("Bye", "x");
+        long p4 = postRepository.insert("Hello four", "x");
+
+        PostSearchPage page = postRepository.searchPageByIds("hello", new long[]{p4, p3, p1}, 0, 1);
+
+        assertEquals(2, page.total());
+        assertEquals(0, page.offset());
+        assertEquals(List.of(p4), page.posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(List.of(p1), postRepository.searchPageByIds("hello", new long[]{p4, p3, p1}, 1, 1)
+            .posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(3, postRepository.searchPageByIds("hello", new long[]{p1, p2, p4}, 0, 5).total());
+    }
+
+    @Test
+    void searchPageByIds_pastEnd_clampsToLastPage() {
+        long p1 = postRepository.insert("Hello one", "x");
+        long p2 = postRepository.insert("Hello two", "x");
+
+        PostSearchPage page = postRepository.searchPageByIds("hello", new long[]{p1, p2}, 10, 1);
+
+        assertEquals(1, page.offset());
+        assertEquals(List.of(p1), page.posts().stream().map(PostPreviewEntity::id).toList());
+    }
+
+    @Test
+    void searchPageByIds_noCandidates_returnsEmptyFirstPage() {
+        postRepository.insert("Hello", "x");
+
+        assertEquals(new PostSearchPage(List.of(), 0, 0), postRepository.searchPageByIds("hello", new long[0], 0, 10));
+    }
+
+    // ========================= searchFullText =========================
+
+    @Test
+    void searchFullText_matchesWordsInTitleAndText() {
+        long p1 = postRepository.insert("Spring tips", "about beans");
+        long p2 = postRepository.insert("Other", "spring boot and beans");
+        postRepository.insert("Springfield", "x");
+
+        PostSearchPage page = postRepository.searchFullText(List.of("spring"), List.of(), PostSort.NEWEST, 0, 10);
+
+        assertEquals(2, page.total());
+        assertEquals(List.of(p2, p1), page.posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(List.of(p2), postRepository.searchFullText(List.of("spring", "boot"), List.of(), PostSort.NEWEST, 0, 10)
+            .posts().stream().map(PostPreviewEntity::id).toList());
+    }
+
+    @Test
+    void searchFullText_rankSort_ordersByRelevance() {
+        long dense = postRepository.insert("spring", "spring spring spring");
+        long sparse = postRepository.insert("spring", "something else entirely");
+
+        PostSearchPage page = postRepository.searchFullText(List.of("spring"), List.of(), PostSort.RANK, 0, 10);
+
+        assertEquals(List.of(dense, sparse), page.posts().stream().map(PostPreviewEntity::id).toList());
+    }
+
+    @Test
+    void searchFullText_updateRefreshesSearchVector_andTagsFilter() {
+        long p1 = postRepository.insert("Old", "x");
+        long p2 = postRepository.insert("Kotlin", "x");
+        postRepository.update(p1, "Kotlin news", "x");
+        linkTags(p1, List.of("jvm"));
+
+        assertEquals(List.of(p1), postRepository.searchFullText(List.of("kotlin"), List.of("jvm"), PostSort.NEWEST, 0, 10)
+            .posts().stream().map(PostPreviewEntity::id).toList());
+        assertEquals(2, postRepository.searchFullText(List.of("kotlin"), List.of(), PostSort.NEWEST, 0, 10).total());
+        assertEquals(0, postRepository.searchFullText(List.of("old"), List.of(), PostSort.NEWEST, 0, 10).total());
+        assertEquals(p2, postRepository.searchFullText(List.of(), List.of(), PostSort.NEWEST, 0, 10).posts().getFirst().id());
+    }
+
+    // ========================= forEachForExport =========================
+
+    @Test
+    void forEachForExport_streamsAllPostsWithTagsAndCommentCounts() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "y");
+        tagRepository.replaceTags(p1, List.of("spring", "java"));
+        jdbc.update("UPDATE posts SET comments_count = 2 WHERE id = :p", Map.of("p", p2));
+
+        List<PostEntity> rows = new ArrayList<>();
+        postRepository.forEachForExport(rows::add);
+
+        assertEquals(List.of(
+            new PostEntity(p1, "A", "x", 0, 0, List.of("java", "spring")),
+            new PostEntity(p2, "B", "y", 0, 2, List.of())
+        ), rows);
+    }
+
     // ========================= helpers =========================
 
+    private static List<Long> ids(List<SortedPostEntity> rows) {
+        return rows.stream().map(r -> r.post().id()).toList();
+    }
+
+    private int likesColumn(long postId) {
+        return jdbc.queryForObject("SELECT likes_count FROM posts WHERE id = :id", Map.of("id", postId), Integer.class);
+    }
+
+    private void touch(long postId, String date) {
+        jdbc.update(
+            "UPDATE posts SET updated_at = CAST(:d AS timestamptz) WHERE id = :p",
+            Map.of("p", postId, "d", date)
+        );
+    }
+
+    private boolean updatedAtIs(long postId, String date) {
+        return Boolean.TRUE.equals(jdbc.getJdbcTemplate().queryForObject(
+            "SELECT updated_at = CAST(? AS timestamptz) FROM posts WHERE id = ?", Boolean.class, date, postId
+        ));
+    }
+
     private void seedPostsNoTags(String... titles) {
         for (String t : titles) {
             postRepository.insert(t, "x");
@@ -255,7 +697,7 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
             long tagId = upsertTag(tag);
             jdbc.update(
                 "INSERT INTO post_tags (post_id, tag_id) VALUES (:p, :t) ON CONFLICT DO NOTHING",
-                java.util.Map.of("p", postId, "t", tagId)
+                Map.of("p", postId, "t", tagId)
             );
         }
     }
@@ -263,7 +705,7 @@ public class JdbcPostRepositoryTest extends AbstractRepositoryTest {
     private long upsertTag(String name) {
         Long id = jdbc.queryForObject(
             "INSERT INTO tags(name) VALUES (:n) ON CONFLICT(name) DO UPDATE SET name = EXCLUDED.name RETURNING id",
-            java.util.Map.of("n", name),
+            Map.of("n", name),
             Long.class
         );
         if (id == null) throw new IllegalStateException("tag id is null");
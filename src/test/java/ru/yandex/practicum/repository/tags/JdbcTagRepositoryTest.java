@@ -2,7 +2,10 @@ package ru.yandex.practicum.repository.tags;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
 import ru.yandex.practicum.repository.AbstractRepositoryTest;
 
 import java.util.Arrays;
@@ -16,54 +19,6 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
     @Autowired private NamedParameterJdbcTemplate jdbc;
     @Autowired private TagRepository tagRepository;
 
-    // ========================= findTagsByPostId / findTagsByPostIds =========================
-
-    @Test
-    void findTagsByPostId() {
-        long postId = insertPost("p");
-        linkTags(postId, List.of("z", "a", "m"));
-        assertEquals(List.of("a", "m", "z"), tagRepository.findTagsByPostId(postId));
-    }
-
-    @Test
-    void findTagsByPostId_whenNone_returnsEmptyList() {
-        long postId = insertPost("p");
-        assertEquals(List.of(), tagRepository.findTagsByPostId(postId));
-    }
-
-    @Test
-    void findTagsByPostIds_emptyInput_returnsEmptyMap() {
-        assertEquals(Map.of(), tagRepository.findTagsByPostIds(List.of()));
-        assertEquals(Map.of(), tagRepository.findTagsByPostIds(null));
-    }
-
-    @Test
-    void findTagsByPostIds_returnsSortedByNameAndGroupedByPost() {
-        long p1 = insertPost("p1");
-        long p2 = insertPost("p2");
-
-        linkTags(p1, List.of("z", "a", "m"));
-        linkTags(p2, List.of("b"));
-
-        Map<Long, List<String>> m = tagRepository.findTagsByPostIds(List.of(p1, p2));
-
-        assertEquals(List.of("a", "m", "z"), m.get(p1));
-        assertEquals(List.of("b"), m.get(p2));
-    }
-
-    @Test
-    void findTagsByPostIds_doesNotCreateEntryForPostsWithoutTags() {
-        long p1 = insertPost("p1");
-        long p2 = insertPost("p2");
-
-        linkTags(p1, List.of("a"));
-
-        Map<Long, List<String>> m = tagRepository.findTagsByPostIds(List.of(p1, p2));
-
-        assertEquals(1, m.size());
-        assertEquals(List.of("a"), m.get(p1));
-    }
-
     // ========================= replaceTags =========================
 
     @Test
@@ -80,7 +35,7 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
             "db"
         ));
 
-        assertEquals(List.of("db", "java", "spring"), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of("db", "java", "spring"), linkedTags(postId));
     }
 
     @Test
@@ -88,10 +43,10 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
         long postId = insertPost("p");
 
         tagRepository.replaceTags(postId, List.of("a", "b"));
-        assertEquals(List.of("a", "b"), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of("a", "b"), linkedTags(postId));
 
         tagRepository.replaceTags(postId, List.of("b", "c"));
-        assertEquals(List.of("b", "c"), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of("b", "c"), linkedTags(postId));
     }
 
     @Test
@@ -99,10 +54,10 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
         long postId = insertPost("p");
 
         tagRepository.replaceTags(postId, List.of("a"));
-        assertEquals(List.of("a"), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of("a"), linkedTags(postId));
 
         tagRepository.replaceTags(postId, List.of());
-        assertEquals(List.of(), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of(), linkedTags(postId));
     }
 
     @Test
@@ -110,10 +65,10 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
         long postId = insertPost("p");
 
         tagRepository.replaceTags(postId, List.of("a"));
-        assertEquals(List.of("a"), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of("a"), linkedTags(postId));
 
         tagRepository.replaceTags(postId, null);
-        assertEquals(List.of(), tagRepository.findTagsByPostId(postId));
+        assertEquals(List.of(), linkedTags(postId));
     }
 
     @Test
@@ -127,8 +82,8 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
         tagRepository.replaceTags(p2, List.of("spring", "java"));
         assertEquals(2, countTags());
 
-        assertEquals(List.of("java", "spring"), tagRepository.findTagsByPostId(p1));
-        assertEquals(List.of("java", "spring"), tagRepository.findTagsByPostId(p2));
+        assertEquals(List.of("java", "spring"), linkedTags(p1));
+        assertEquals(List.of("java", "spring"), linkedTags(p2));
     }
 
     @Test
@@ -141,8 +96,65 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
 
         tagRepository.replaceTags(p1, List.of("b", "d"));
 
-        assertEquals(List.of("b", "d"), tagRepository.findTagsByPostId(p1));
-        assertEquals(List.of("a", "c"), tagRepository.findTagsByPostId(p2));
+        assertEquals(List.of("b", "d"), linkedTags(p1));
+        assertEquals(List.of("a", "c"), linkedTags(p2));
+    }
+
+    @Test
+    void replaceTags_storesSortedNamesOnPost() {
+        long postId = insertPost("p");
+
+        tagRepository.replaceTags(postId, List.of("Spring", "db", "java"));
+        assertEquals(List.of("db", "java", "spring"), tagNames(postId));
+
+        tagRepository.replaceTags(postId, List.of());
+        assertEquals(List.of(), tagNames(postId));
+    }
+
+    // ========================= findPostsWithStaleTagNames + repairTagNames =========================
+
+    @Test
+    void findPostsWithStaleTagNames_reportsPostsDivergingFromLinks() {
+        long p1 = insertPost("p1");
+        long p2 = insertPost("p2");
+        long p3 = insertPost("p3");
+
+        tagRepository.replaceTags(p1, List.of("a", "b"));
+        linkTags(p2, List.of("c"));
+        jdbc.update("UPDATE posts SET tag_names = '{ghost}' WHERE id = :id", Map.of("id", p3));
+
+        assertEquals(List.of(p2, p3), tagRepository.findPostsWithStaleTagNames());
+    }
+
+    @Test
+    void repairTagNames_rewritesOnlyStalePosts() {
+        long p1 = insertPost("p1");
+        long p2 = insertPost("p2");
+
+        tagRepository.replaceTags(p1, List.of("a", "b"));
+        linkTags(p2, List.of("z", "c"));
+
+        assertEquals(1, tagRepository.repairTagNames());
+
+        assertEquals(List.of("a", "b"), tagNames(p1));
+        assertEquals(List.of("c", "z"), tagNames(p2));
+        assertEquals(List.of(), tagRepository.findPostsWithStaleTagNames());
+    }
+
+    @Test
+    void schemaScript_backfillsTagNamesOfExistingPosts() {
+        long tagged = insertPost("tagged");
+        long untagged = insertPost("untagged");
+        linkTags(tagged, List.of("z", "c"));
+
+        jdbc.getJdbcTemplate().execute((ConnectionCallback<Void>) con -> {
+            ScriptUtils.executeSqlScript(con, new ClassPathResource("schema.sql"));
+            return null;
+        });
+
+        assertEquals(List.of("c", "z"), tagNames(tagged));
+        assertEquals(List.of(), tagNames(untagged));
+        assertEquals(List.of(), tagRepository.findPostsWithStaleTagNames());
     }
 
     // ========================= helpers =========================
@@ -182,4 +194,20 @@ public class JdbcTagRepositoryTest extends AbstractRepositoryTest {
         Integer c = jdbc.getJdbcTemplate().queryForObject(sql, Integer.class);
         return c == null ? 0 : c;
     }
+
+    private List<String> linkedTags(long postId) {
+        return jdbc.queryForList(
+            "SELECT t.name FROM post_tags pt JOIN tags t ON t.id = pt.tag_id WHERE pt.post_id = :id ORDER BY t.name",
+            Map.of("id", postId),
+            String.class
+        );
+    }
+
+    private List<String> tagNames(long postId) {
+        return jdbc.queryForObject(
+            "SELECT tag_names FROM posts WHERE id = :id",
+            Map.of("id", postId),
+            (rs, rowNum) -> List.of((String[]) rs.getArray("tag_names").getArray())
+        );
+    }
 }
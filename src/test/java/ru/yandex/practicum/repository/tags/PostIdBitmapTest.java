@@ -0,0 +1,98 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PostIdBitmapTest {
+
+    // ========================= add / remove =========================
+
+    @Test
+    void add_remove_contains() {
+        PostIdBitmap bitmap = new PostIdBitmap();
+
+        assertTrue(bitmap.add(5));
+        assertFalse(bitmap.add(5));
+        assertTrue(bitmap.add(70_000));
+
+        assertTrue(bitmap.contains(5));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(6));
+        assertEquals(2, bitmap.cardinality());
+
+        assertTrue(bitmap.remove(5));
+        assertFalse(bitmap.remove(5));
+        assertFalse(bitmap.contains(5));
+        assertEquals(1, bitmap.cardinality());
+
+        assertTrue(bitmap.remove(70_000));
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void add_denseRange_switchesToBitmapContainer_andBack() {
+        PostIdBitmap bitmap = new PostIdBitmap();
+        for (long id = 0; id < 10_000; id++) bitmap.add(id);
+
+        assertEquals(10_000, bitmap.cardinality());
+        assertTrue(bitmap.sizeInBytes() < 10_000 * 2);
+
+        for (long id = 0; id < 10_000; id += 2) bitmap.remove(id);
+
+        assertEquals(5_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(9_999));
+        assertFalse(bitmap.contains(9_998));
+    }
+
+    // ========================= and =========================
+
+    @Test
+    void and_matchesSetIntersection_acrossContainerKinds() {
+        PostIdBitmap dense = new PostIdBitmap();
+        PostIdBitmap sparse = new PostIdBitmap();
+        PostIdBitmap everyThird = new PostIdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+
+        for (long id = 1; id <= 200_000; id++) {
+            if (id % 2 == 0) dense.add(id);
+            if (id % 3 == 0) everyThird.add(id);
+            if (id % 97 == 0) sparse.add(id);
+            if (id % 2 == 0 && id % 3 == 0 && id % 97 == 0) expected.add(id);
+        }
+
+        PostIdBitmap result = PostIdBitmap.and(List.of(dense, everyThird, sparse));
+
+        assertArrayEquals(expected.descendingSet().stream().mapToLong(Long::longValue).toArray(), result.toArray());
+        assertEquals(100_000, dense.cardinality());
+    }
+
+    @Test
+    void and_disjoint_isEmpty() {
+        PostIdBitmap a = new PostIdBitmap();
+        PostIdBitmap b = new PostIdBitmap();
+        a.add(1);
+        b.add(100_000);
+
+        assertTrue(PostIdBitmap.and(List.of(a, b)).isEmpty());
+    }
+
+    // ========================= toArrayDescending =========================
+
+    @Test
+    void toArrayDescending_skipsOffset_acrossContainers() {
+        PostIdBitmap bitmap = new PostIdBitmap();
+        LongStream.rangeClosed(65_530, 65_540).forEach(bitmap::add);
+
+        assertArrayEquals(new long[] {65_538, 65_537, 65_536, 65_535}, bitmap.toArrayDescending(2, 4));
+        assertArrayEquals(new long[] {65_530}, bitmap.toArrayDescending(10, 4));
+        assertArrayEquals(new long[0], bitmap.toArrayDescending(20, 4));
+    }
+}
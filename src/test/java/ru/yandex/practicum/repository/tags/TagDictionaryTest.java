@@ -0,0 +1,95 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TagDictionaryTest extends AbstractRepositoryTest {
+
+    @Autowired private NamedParameterJdbcTemplate jdbc;
+    @Autowired private TagDictionary dictionary;
+
+    @BeforeEach
+    void resetDictionary() {
+        dictionary.clear();
+    }
+
+    // ========================= idsOf / namesOf =========================
+
+    @Test
+    void idsOf_namesOf_resolveExistingTags_skipUnknown() {
+        Map<String, Long> created = dictionary.createIfAbsent(List.of("java", "spring"));
+
+        assertEquals(created, dictionary.idsOf(List.of("java", "spring", "unknown")));
+        assertEquals(Map.of(created.get("java"), "java"), dictionary.namesOf(List.of(created.get("java"), -1L)));
+    }
+
+    @Test
+    void namesOf_returnsCanonicalInstances() {
+        long id = dictionary.createIfAbsent(List.of("kotlin")).get("kotlin");
+
+        assertSame(dictionary.namesOf(List.of(id)).get(id), dictionary.namesOf(List.of(id)).get(id));
+    }
+
+    // ========================= createIfAbsent =========================
+
+    @Test
+    void createIfAbsent_reusesExistingIds() {
+        long java = dictionary.createIfAbsent(List.of("java")).get("java");
+
+        Map<String, Long> ids = dictionary.createIfAbsent(List.of("java", "db"));
+
+        assertEquals(java, ids.get("java"));
+        assertEquals(2, ids.size());
+        assertEquals(2, jdbc.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM tags", Integer.class));
+    }
+
+    @Test
+    void createIfAbsent_uncommittedTags_areNotCached() {
+        long id = dictionary.createIfAbsent(List.of("draft")).get("draft");
+
+        jdbc.getJdbcTemplate().update("DELETE FROM tags WHERE name = 'draft'");
+
+        assertEquals(Map.of(), dictionary.idsOf(List.of("draft")));
+        assertEquals(Map.of(), dictionary.namesOf(List.of(id)));
+    }
+
+    // ========================= unknown names =========================
+
+    @Test
+    void idsOf_unknownName_isNotQueriedAgain_untilCreated() {
+        assertEquals(Map.of(), dictionary.idsOf(List.of("later")));
+        insertTag("later");
+
+        assertEquals(Map.of(), dictionary.idsOf(List.of("later")));
+
+        long id = dictionary.createIfAbsent(List.of("later")).get("later");
+        assertEquals(Map.of("later", id), dictionary.idsOf(List.of("later")));
+    }
+
+    @Test
+    void idsOf_unknownNames_areBounded() {
+        TagDictionary bounded = new TagDictionary(jdbc, 2);
+        bounded.idsOf(List.of("a", "b"));
+        long a = insertTag("a");
+        assertEquals(Map.of(), bounded.idsOf(List.of("a")));
+
+        bounded.idsOf(List.of("c"));
+
+        assertEquals(Map.of("a", a), bounded.idsOf(List.of("a")));
+    }
+
+    private long insertTag(String name) {
+        Long id = jdbc.queryForObject("INSERT INTO tags (name) VALUES (:n) RETURNING id", Map.of("n", name), Long.class);
+        if (id == null) throw new IllegalStateException("tag id is null");
+        return id;
+    }
+}
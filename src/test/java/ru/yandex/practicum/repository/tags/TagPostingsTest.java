@@ -0,0 +1,85 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.posts.PostRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "search.tags=bitmap")
+public class TagPostingsTest extends AbstractRepositoryTest {
+
+    @Autowired private TagPostings postings;
+    @Autowired private PostRepository postRepository;
+    @Autowired private TagRepository tagRepository;
+
+    @BeforeEach
+    void resetPostings() {
+        postings.rebuild();
+    }
+
+    // ========================= postsWithAllTags =========================
+
+    @Test
+    void postsWithAllTags_intersectsTags() {
+        postings.onTagsReplaced(1L, List.of(), List.of("java", "spring"));
+        postings.onTagsReplaced(2L, List.of(), List.of("java"));
+        postings.onTagsReplaced(3L, List.of(), List.of("db", "java", "spring"));
+
+        assertArrayEquals(new long[] {3L, 1L}, postings.postsWithAllTags(List.of("java", "spring")).toArray());
+        assertTrue(postings.postsWithAllTags(List.of("java", "unknown")).isEmpty());
+    }
+
+    @Test
+    void onTagsReplaced_removesOldLinks() {
+        postings.onTagsReplaced(1L, List.of(), List.of("a", "b"));
+        postings.onTagsReplaced(1L, List.of("a", "b"), List.of("b", "c"));
+
+        assertTrue(postings.postsWithAllTags(List.of("a")).isEmpty());
+        assertArrayEquals(new long[] {1L}, postings.postsWithAllTags(List.of("b", "c")).toArray());
+        assertEquals(2, postings.stats().tags());
+        assertEquals(2, postings.stats().links());
+    }
+
+    // ========================= rebuild =========================
+
+    @Test
+    void rebuild_loadsLinksFromDatabase() {
+        long p1 = postRepository.insert("P1", "x");
+        long p2 = postRepository.insert("P2", "x");
+        tagRepository.replaceTags(p1, List.of("java", "spring"));
+        tagRepository.replaceTags(p2, List.of("spring"));
+
+        postings.rebuild();
+
+        assertArrayEquals(new long[] {p2, p1}, postings.postsWithAllTags(List.of("spring")).toArray());
+        assertArrayEquals(new long[] {p1}, postings.postsWithAllTags(List.of("java", "spring")).toArray());
+        assertEquals(3, postings.stats().links());
+    }
+
+    @Test
+    void rebuild_replaysReplacementsMadeDuringLoad() {
+        long p1 = postRepository.insert("P1", "x");
+        long p2 = postRepository.insert("P2", "x");
+        tagRepository.replaceTags(p1, List.of("java"));
+        tagRepository.replaceTags(p2, List.of("java"));
+        long late = p2 + 1_000;
+        TagPostings target = AopTestUtils.getTargetObject(postings);
+
+        target.rebuild(() -> {
+            postings.onTagsReplaced(p1, List.of("java"), List.of("spring"));
+            postings.onTagsReplaced(late, List.of(), List.of("java"));
+        });
+
+        assertArrayEquals(new long[] {late, p2}, postings.postsWithAllTags(List.of("java")).toArray());
+        assertArrayEquals(new long[] {p1}, postings.postsWithAllTags(List.of("spring")).toArray());
+    }
+}
@@ -0,0 +1,121 @@
+package ru.yandex.practicum.repository.tags;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.yandex.practicum.domain.TagSuggestion;
+import ru.yandex.practicum.repository.AbstractRepositoryTest;
+import ru.yandex.practicum.repository.posts.PostRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TagSuggestionsTest extends AbstractRepositoryTest {
+
+    @Autowired private TagSuggestions suggestions;
+    @Autowired private PostRepository postRepository;
+    @Autowired private TagRepository tagRepository;
+
+    @BeforeEach
+    void resetSuggestions() {
+        suggestions.clear();
+    }
+
+    // ========================= suggest =========================
+
+    @Test
+    void suggest_matchesPrefix_rankedByPostsCountThenName() {
+        postTagged("java", "javascript", "spring");
+        postTagged("javascript", "jakarta");
+        postTagged("javascript", "java");
+        postTagged("jakarta");
+
+        assertEquals(List.of(
+            new TagSuggestion("javascript", 3),
+            new TagSuggestion("jakarta", 2),
+            new TagSuggestion("java", 2)
+        ), suggestions.suggest("ja", 10));
+        assertEquals(List.of(new TagSuggestion("javascript", 3)), suggestions.suggest("ja", 1));
+        assertEquals(List.of(new TagSuggestion("spring", 1)), suggestions.suggest("s", 10));
+        assertEquals(List.of(), suggestions.suggest("x", 10));
+    }
+
+    @Test
+    void onTagsReplaced_unusedTagsAreNotSuggested() {
+        long postId = postTagged("java", "jvm");
+        replaceTags(postId, List.of("java", "jvm"), List.of("jvm"));
+
+        assertEquals(List.of(new TagSuggestion("jvm", 1)), suggestions.suggest("j", 10));
+    }
+
+    @Test
+    void suggest_shortAndLongPrefixes_followCountUpdates() {
+        suggestions.load(Map.of("java", 5, "javascript", 7, "jakarta", 5, "jvm", 1, "kotlin", 9, "unused", 0));
+        for (int i = 0; i < 6; i++) linkOnly("javascript");
+        linkOnly("jvm");
+        long moved = linkOnly("javascript");
+        replaceTags(moved, List.of("javascript"), List.of("jvm"));
+
+        assertEquals(List.of(
+            new TagSuggestion("javascript", 6),
+            new TagSuggestion("jakarta", 5),
+            new TagSuggestion("java", 5)
+        ), suggestions.suggest("ja", 10));
+        assertEquals(List.of(new TagSuggestion("javascript", 6), new TagSuggestion("java", 5)),
+            suggestions.suggest("jav", 10));
+        assertEquals(List.of(new TagSuggestion("kotlin", 9), new TagSuggestion("javascript", 6)),
+            suggestions.suggest("", 2));
+        assertEquals(List.of(new TagSuggestion("jvm", 2)), suggestions.suggest("jv", 10));
+        assertEquals(List.of(), suggestions.suggest("un", 10));
+    }
+
+    @Test
+    void onTagsReplaced_deliveredAfterRebuildSawTheChange_doesNotCountTwice() {
+        long postId = postRepository.insert("A", "x");
+        tagRepository.replaceTags(postId, List.of("kafka"));
+        suggestions.rebuild();
+
+        suggestions.onTagsReplaced(postId, List.of(), List.of("kafka"));
+        suggestions.onTagsReplaced(postId, List.of(), List.of("kafka"));
+
+        assertEquals(List.of(new TagSuggestion("kafka", 1)), suggestions.suggest("ka", 10));
+    }
+
+    // ========================= rebuild =========================
+
+    @Test
+    void rebuild_loadsCountsFromDatabase() {
+        long p1 = postRepository.insert("A", "x");
+        long p2 = postRepository.insert("B", "x");
+        tagRepository.replaceTags(p1, List.of("db", "docker"));
+        tagRepository.replaceTags(p2, List.of("docker"));
+
+        suggestions.rebuild();
+
+        assertEquals(List.of(
+            new TagSuggestion("docker", 2),
+            new TagSuggestion("db", 1)
+        ), suggestions.suggest("d", 10));
+    }
+
+    // ========================= helpers =========================
+
+    private long postTagged(String... tags) {
+        long postId = linkOnly(tags);
+        suggestions.onTagsReplaced(postId, List.of(), List.of(tags));
+        return postId;
+    }
+
+    private long linkOnly(String... tags) {
+        long postId = postRepository.insert("p", "x");
+        tagRepository.replaceTags(postId, List.of(tags));
+        return postId;
+    }
+
+    private void replaceTags(long postId, List<String> oldTags, List<String> newTags) {
+        tagRepository.replaceTags(postId, newTags);
+        suggestions.onTagsReplaced(postId, oldTags, newTags);
+    }
+}
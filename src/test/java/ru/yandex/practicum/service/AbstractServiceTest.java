@@ -18,6 +18,9 @@ public abstract class AbstractServiceTest {
     @Autowired protected CommentRepository commentRepository;
     @Autowired protected TagRepository tagRepository;
     @Autowired protected PostImageStorage postImageStorage;
+    @Autowired protected SearchTotals searchTotals;
+    @Autowired protected PostPageCache postPageCache;
+    @Autowired protected PostCache postCache;
 
     @BeforeEach
     void resetMocks() {
@@ -27,5 +30,8 @@ public abstract class AbstractServiceTest {
             tagRepository,
             postImageStorage
         );
+        searchTotals.clear();
+        postPageCache.clear();
+        postCache.clear();
     }
 }
@@ -149,4 +149,16 @@ public class CommentServiceTest extends AbstractServiceTest {
         verify(commentRepository).delete(1L, 2L);
         verifyNoMoreInteractions(commentRepository);
     }
+
+    // ========================= repairCommentsCounts =========================
+
+    @Test
+    void repairCommentsCounts_returnsRepairedCount() {
+        when(commentRepository.repairCommentsCounts()).thenReturn(2);
+
+        assertEquals(2, commentService.repairCommentsCounts());
+
+        verify(commentRepository).repairCommentsCounts();
+        verifyNoMoreInteractions(commentRepository);
+    }
 }
@@ -0,0 +1,180 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.exception.not_found.PostNotFoundException;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.posts.PostLikesCount;
+import ru.yandex.practicum.repository.posts.PostRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LikeBufferTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final LikeBuffer buffer = new LikeBuffer(postRepository, new PostCache(10, 0, () -> 0), new PostPageCache(10));
+
+    // ========================= increment =========================
+
+    @Test
+    void increment_returnsDatabaseValuePlusPending_withoutWriting() {
+        when(postRepository.getLikesCount(7L)).thenReturn(40);
+
+        assertEquals(41, buffer.increment(7L));
+        assertEquals(42, buffer.increment(7L));
+
+        assertEquals(2, buffer.pending());
+        verify(postRepository, times(1)).getLikesCount(7L);
+        verify(postRepository, never()).addLikes(any(), any());
+        verify(postRepository, never()).incrementLikes(7L);
+    }
+
+    @Test
+    void increment_missingPost_throwsAndBuffersNothing() {
+        when(postRepository.getLikesCount(9L)).thenThrow(new PostNotFoundException(9L));
+
+        assertThrows(PostNotFoundException.class, () -> buffer.increment(9L));
+        assertEquals(0, buffer.pending());
+    }
+
+    // ========================= add =========================
+
+    @Test
+    void add_buffersBatchOnTopOfLiveCounters_skipsMissing() {
+        when(postRepository.getLikesCount(1L)).thenReturn(10);
+        when(postRepository.getLikesCounts(any())).thenReturn(List.of(new PostLikesCount(2L, 5)));
+        buffer.increment(1L);
+
+        List<PostLikesCount> likes = buffer.add(LongList.of(1L, 2L, 3L), LongList.of(3L, 2L, 4L));
+
+        assertEquals(List.of(new PostLikesCount(1L, 14), new PostLikesCount(2L, 7)), likes);
+        assertEquals(6, buffer.pending());
+        assertEquals(15, buffer.increment(1L));
+        verify(postRepository, never()).getLikesCount(2L);
+        verify(postRepository, never()).addLikes(any(), any());
+    }
+
+    @Test
+    void add_flushWritesBatchTogetherWithSingleLikes() {
+        when(postRepository.getLikesCount(1L)).thenReturn(0);
+        buffer.increment(1L);
+        buffer.add(LongList.of(1L), LongList.of(5L));
+
+        buffer.flush();
+
+        verify(postRepository).addLikes(LongList.of(1L), LongList.of(6L));
+        assertEquals(0, buffer.pending());
+    }
+
+    // ========================= flush =========================
+
+    @Test
+    void flush_writesAllDeltasInOneBatch() {
+        when(postRepository.getLikesCount(1L)).thenReturn(0);
+        when(postRepository.getLikesCount(2L)).thenReturn(10);
+        when(postRepository.addLikes(any(), any())).thenReturn(List.of(new PostLikesCount(1L, 1), new PostLikesCount(2L, 12)));
+        buffer.increment(1L);
+        buffer.increment(2L);
+        buffer.increment(2L);
+
+        assertEquals(2, buffer.flush());
+
+        verify(postRepository).addLikes(LongList.of(1L, 2L), LongList.of(1L, 2L));
+        assertEquals(0, buffer.pending());
+        assertEquals(13, buffer.increment(2L));
+    }
+
+    @Test
+    void flush_idleCounterIsRetired_andReloadedOnNextLike() {
+        when(postRepository.getLikesCount(1L)).thenReturn(0, 1);
+        buffer.increment(1L);
+
+        buffer.flush();
+        buffer.flush();
+        assertEquals(2, buffer.increment(1L));
+
+        verify(postRepository, times(2)).getLikesCount(1L);
+        verify(postRepository, times(1)).addLikes(any(), any());
+    }
+
+    @Test
+    void flush_deletedPost_dropsCounter_andReloadsOnNextLike() {
+        when(postRepository.getLikesCount(1L)).thenReturn(0).thenThrow(new PostNotFoundException(1L));
+        when(postRepository.addLikes(any(), any())).thenReturn(List.of());
+        buffer.increment(1L);
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pending());
+        assertThrows(PostNotFoundException.class, () -> buffer.increment(1L));
+        verify(postRepository, times(1)).addLikes(any(), any());
+    }
+
+    @Test
+    void flush_failedBatch_keepsDeltasForRetry() {
+        when(postRepository.getLikesCount(1L)).thenReturn(0);
+        when(postRepository.addLikes(any(), any())).thenThrow(new IllegalStateException("db down")).thenReturn(List.of());
+        buffer.increment(1L);
+
+        assertThrows(IllegalStateException.class, buffer::flush);
+        assertEquals(1, buffer.pending());
+
+        buffer.flush();
+        assertEquals(0, buffer.pending());
+    }
+
+    // ========================= forget =========================
+
+    @Test
+    void forget_discardsPendingLikes_andReloadsOnNextLike() {
+        when(postRepository.getLikesCount(1L)).thenReturn(3).thenThrow(new PostNotFoundException(1L));
+        buffer.increment(1L);
+
+        buffer.forget(1L);
+
+        assertEquals(0, buffer.pending());
+        assertEquals(0, buffer.flush());
+        assertThrows(PostNotFoundException.class, () -> buffer.increment(1L));
+        verify(postRepository, never()).addLikes(any(), any());
+    }
+
+    @Test
+    void close_flushesPendingLikes() {
+        when(postRepository.getLikesCount(5L)).thenReturn(0);
+        buffer.increment(5L);
+
+        buffer.close();
+
+        verify(postRepository).addLikes(LongList.of(5L), LongList.of(1L));
+    }
+
+    @Test
+    void increment_concurrentLikes_areAllFlushed() throws Exception {
+        when(postRepository.getLikesCount(1L)).thenReturn(0);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) buffer.increment(1L);
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+
+        assertEquals(8_000, buffer.pending());
+        buffer.flush();
+        verify(postRepository).addLikes(LongList.of(1L), LongList.of(8_000L));
+    }
+}
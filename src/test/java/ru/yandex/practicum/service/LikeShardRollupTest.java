@@ -0,0 +1,59 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
+import ru.yandex.practicum.repository.posts.PostRepository;
+import ru.yandex.practicum.service.PostPageCache.PageKey;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LikeShardRollupTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final PostPageCache pageCache = new PostPageCache(10);
+    private final LikeShardRollup rollup = new LikeShardRollup(postRepository, pageCache, 0);
+
+    private final PageKey byLikes = key(PostSort.LIKES);
+    private final PageKey newest = key(PostSort.NEWEST);
+
+    // ========================= rollup =========================
+
+    @Test
+    void rollup_foldedPosts_invalidatesLikesSortedPagesOnly() {
+        cachePages();
+        when(postRepository.rollupLikeShards()).thenReturn(3);
+
+        assertEquals(3, rollup.rollup());
+
+        assertNull(pageCache.get(byLikes));
+        assertNotNull(pageCache.get(newest));
+    }
+
+    @Test
+    void rollup_nothingFolded_keepsCache() {
+        cachePages();
+        when(postRepository.rollupLikeShards()).thenReturn(0);
+
+        assertEquals(0, rollup.rollup());
+
+        assertNotNull(pageCache.get(byLikes));
+    }
+
+    private void cachePages() {
+        PostPage empty = new PostPage(List.of(), 1, 10, 1);
+        pageCache.put(byLikes, empty, pageCache.generation());
+        pageCache.put(newest, empty, pageCache.generation());
+    }
+
+    private static PageKey key(PostSort sort) {
+        return new PageKey(SearchParser.parse(""), SearchMode.TITLE, sort, 1, 10);
+    }
+}
@@ -0,0 +1,125 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.service.PostCache.PostCacheStats;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PostCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final PostCache cache = new PostCache(2, 0, now::get);
+
+    // ========================= get / put =========================
+
+    @Test
+    void get_countsHitsAndMisses() {
+        Post post = post(1L);
+
+        assertNull(cache.get(1L));
+        cache.put(post, cache.version(1L));
+
+        assertSame(post, cache.get(1L));
+        assertEquals(new PostCacheStats(1, 1, 0.5, 0, 0, 1, 2), cache.stats());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsed() {
+        put(cache, post(1L));
+        now.incrementAndGet();
+        put(cache, post(2L));
+        now.incrementAndGet();
+        cache.get(1L);
+        now.incrementAndGet();
+        put(cache, post(3L));
+
+        assertNull(cache.get(2L));
+        assertEquals(1L, cache.get(1L).id());
+        assertEquals(3L, cache.get(3L).id());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void put_computedBeforeInvalidation_isDropped() {
+        long version = cache.version(1L);
+        cache.invalidate(1L);
+
+        cache.put(post(1L), version);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_computedBeforeInvalidationOfAnotherPost_isKept() {
+        long version = cache.version(1L);
+        cache.invalidate(2L);
+
+        cache.put(post(1L), version);
+
+        assertEquals(1L, cache.get(1L).id());
+    }
+
+    @Test
+    void put_computedBeforeClear_isDropped() {
+        long version = cache.version(1L);
+        cache.clear();
+
+        cache.put(post(1L), version);
+
+        assertNull(cache.get(1L));
+    }
+
+    // ========================= ttl =========================
+
+    @Test
+    void get_afterTtl_expiresEntry() {
+        PostCache expiring = new PostCache(10, 60, now::get);
+        put(expiring, post(1L));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals(1L, expiring.get(1L).id());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertNull(expiring.get(1L));
+        assertEquals(1, expiring.stats().expirations());
+        assertEquals(0, expiring.stats().size());
+    }
+
+    // ========================= invalidate / clear =========================
+
+    @Test
+    void invalidate_removesOnlyThatPost() {
+        put(cache, post(1L));
+        put(cache, post(2L));
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L));
+        assertEquals(2L, cache.get(2L).id());
+    }
+
+    @Test
+    void clear_removesEverything() {
+        put(cache, post(1L));
+
+        cache.clear();
+
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.stats().size());
+    }
+
+    private static void put(PostCache cache, Post post) {
+        cache.put(post, cache.version(post.id()));
+    }
+
+    private static Post post(long id) {
+        return new Post(id, "t" + id, "x", 0, 0, List.of());
+    }
+}
@@ -2,6 +2,7 @@ package ru.yandex.practicum.service;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mock.web.MockMultipartFile;
 import ru.yandex.practicum.domain.ImagePayload;
 import ru.yandex.practicum.exception.validation.ImageRequiredException;
@@ -65,17 +66,17 @@ public class PostImageServiceTest extends AbstractServiceTest {
     // ========================= getOrDefault =========================
 
     @Test
-    void getOrDefault_returnsStoredImage() {
+    void getOrDefault_returnsStoredImage() throws Exception {
         byte[] bytes = new byte[] {1, 2, 3};
 
         when(postRepository.findImageContentType(3L)).thenReturn(Optional.of("image/png"));
         when(postImageStorage.exists(3L)).thenReturn(true);
-        when(postImageStorage.read(3L)).thenReturn(bytes);
+        when(postImageStorage.read(3L)).thenReturn(new ByteArrayResource(bytes));
 
         ImagePayload p = service.getOrDefault(3L);
 
         assertEquals("image/png", p.contentType());
-        assertArrayEquals(bytes, p.bytes());
+        assertArrayEquals(bytes, p.resource().getContentAsByteArray());
 
         verify(postRepository).findImageContentType(3L);
         verify(postImageStorage).exists(3L);
@@ -84,28 +85,28 @@ public class PostImageServiceTest extends AbstractServiceTest {
     }
 
     @Test
-    void getOrDefault_contentTypeIsNull() {
+    void getOrDefault_contentTypeIsNull() throws Exception {
         when(postRepository.findImageContentType(1L)).thenReturn(Optional.empty());
 
         ImagePayload p = service.getOrDefault(1L);
 
         assertEquals("image/svg+xml", p.contentType());
-        assertNotNull(p.bytes());
-        assertTrue(p.bytes().length > 0);
+        assertNotNull(p.resource());
+        assertTrue(p.resource().contentLength() > 0);
 
         verify(postRepository).findImageContentType(1L);
         verifyNoInteractions(postImageStorage);
     }
 
     @Test
-    void getOrDefault_fileIsMissing() {
+    void getOrDefault_fileIsMissing() throws Exception {
         when(postRepository.findImageContentType(2L)).thenReturn(Optional.of("image/png"));
         when(postImageStorage.exists(2L)).thenReturn(false);
 
         ImagePayload p = service.getOrDefault(2L);
 
         assertEquals("image/svg+xml", p.contentType());
-        assertTrue(p.bytes().length > 0);
+        assertTrue(p.resource().contentLength() > 0);
 
         verify(postRepository).findImageContentType(2L);
         verify(postImageStorage).exists(2L);
@@ -0,0 +1,165 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostPreview;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
+import ru.yandex.practicum.service.PostPageCache.PageCacheStats;
+import ru.yandex.practicum.service.PostPageCache.PageKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PostPageCacheTest {
+
+    private final PostPageCache cache = new PostPageCache(2, new AtomicLong()::incrementAndGet);
+
+    // ========================= get / put =========================
+
+    @Test
+    void get_countsHitsAndMisses() {
+        PageKey key = key("", 1);
+        PostPage page = page(1L);
+
+        assertNull(cache.get(key));
+        cache.put(key, page, cache.generation());
+
+        assertSame(page, cache.get(key));
+        assertEquals(new PageCacheStats(1, 1, 0, 1, 2), cache.stats());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsed() {
+        cache.put(key("", 1), page(1L), cache.generation());
+        cache.put(key("", 2), page(2L), cache.generation());
+        cache.get(key("", 1));
+
+        cache.put(key("", 3), page(3L), cache.generation());
+
+        assertNull(cache.get(key("", 2)));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void put_computedBeforeInvalidationOfContainedPost_isDropped() {
+        long generation = cache.generation();
+        cache.invalidatePost(1L);
+
+        cache.put(key("", 1), page(1L), generation);
+
+        assertNull(cache.get(key("", 1)));
+    }
+
+    @Test
+    void put_computedBeforeInvalidationOfOtherPost_isKept() {
+        long generation = cache.generation();
+        cache.invalidatePost(42L);
+
+        cache.put(key("", 1), page(1L), generation);
+
+        assertEquals(page(1L), cache.get(key("", 1)));
+    }
+
+    @Test
+    void put_computedBeforeInvalidationOfItsSort_isDropped() {
+        long beforeLikes = cache.generation();
+        cache.invalidateSortedBy(PostSort.LIKES);
+        cache.put(key("", 1), page(1L), beforeLikes);
+        assertEquals(page(1L), cache.get(key("", 1)));
+
+        long beforeNewest = cache.generation();
+        cache.invalidateSortedBy(PostSort.NEWEST);
+        cache.put(key("", 2), page(2L), beforeNewest);
+        assertNull(cache.get(key("", 2)));
+    }
+
+    @Test
+    void put_computedBeforeMatchingInvalidation_isDropped() {
+        long generation = cache.generation();
+        cache.invalidateMatching(42L, "t", "x", List.of());
+
+        cache.put(key("", 1), page(1L), generation);
+
+        assertNull(cache.get(key("", 1)));
+    }
+
+    // ========================= invalidation =========================
+
+    @Test
+    void invalidatePost_dropsOnlyPagesContainingPost() {
+        cache.put(key("", 1), page(1L), cache.generation());
+        cache.put(key("", 2), page(2L), cache.generation());
+
+        cache.invalidatePost(1L);
+
+        assertNull(cache.get(key("", 1)));
+        assertEquals(page(2L), cache.get(key("", 2)));
+    }
+
+    @Test
+    void invalidateMatching_dropsPagesWhoseQueryMatchesPost() {
+        PageKey hello = key("hello #java", 1);
+        PageKey other = key("other", 1);
+        cache.put(hello, page(1L), cache.generation());
+        cache.put(other, page(2L), cache.generation());
+
+        cache.invalidateMatching(99L, "Hello world", "x", List.of("java"));
+
+        assertNull(cache.get(hello));
+        assertEquals(page(2L), cache.get(other));
+    }
+
+    @Test
+    void invalidateMatching_treatsLikeWildcardsLiterally() {
+        PageKey underscore = key("a_c", 1);
+        cache.put(underscore, page(1L), cache.generation());
+
+        cache.invalidateMatching(99L, "abc", "x", List.of());
+        assertEquals(page(1L), cache.get(underscore));
+
+        cache.invalidateMatching(99L, "a_c", "x", List.of());
+        assertNull(cache.get(underscore));
+    }
+
+    @Test
+    void concurrentReadsWritesAndInvalidations_stayWithinCapacity() throws Exception {
+        PostPageCache shared = new PostPageCache(100);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        PageKey key = key("", i % 300 + 1);
+                        if (shared.get(key) == null) shared.put(key, page(i % 50), shared.generation());
+                        if (i % 100 == thread) shared.invalidatePost(i % 50);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+
+        PageCacheStats stats = shared.stats();
+        assertTrue(stats.size() <= 100 + 8);
+        assertEquals(8 * 2_000, stats.hits() + stats.misses());
+    }
+
+    private static PageKey key(String search, int pageNumber) {
+        return new PageKey(SearchParser.parse(search), SearchMode.TITLE, PostSort.NEWEST, pageNumber, 10);
+    }
+
+    private static PostPage page(long postId) {
+        return new PostPage(List.of(new PostPreview(postId, "t", "x", 0, 0, List.of())), 1, 10, 1);
+    }
+}
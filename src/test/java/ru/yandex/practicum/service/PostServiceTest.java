@@ -2,10 +2,24 @@ package ru.yandex.practicum.service;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import ru.yandex.practicum.domain.LikesBatch;
 import ru.yandex.practicum.domain.Post;
+import ru.yandex.practicum.domain.PostCursorPage;
 import ru.yandex.practicum.domain.PostPage;
+import ru.yandex.practicum.domain.PostPreview;
+import ru.yandex.practicum.domain.PostSort;
+import ru.yandex.practicum.domain.SearchMode;
 import ru.yandex.practicum.entity.posts.PostEntity;
+import ru.yandex.practicum.entity.posts.PostPreviewEntity;
 import ru.yandex.practicum.exception.not_found.PostNotFoundException;
+import ru.yandex.practicum.exception.not_found.SearchIndexDisabledException;
+import ru.yandex.practicum.exception.validation.InvalidCursorException;
+import ru.yandex.practicum.exception.validation.UnsupportedSortException;
+import ru.yandex.practicum.repository.LongList;
+import ru.yandex.practicum.repository.posts.PostLikesCount;
+import ru.yandex.practicum.repository.posts.PostSearchPage;
+import ru.yandex.practicum.repository.posts.PostSortKey;
+import ru.yandex.practicum.repository.posts.SortedPostEntity;
 
 import java.util.List;
 import java.util.Map;
@@ -13,9 +27,14 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -30,11 +49,9 @@ public class PostServiceTest extends AbstractServiceTest {
     @Test
     void getPost() {
         long id = 1L;
-        PostEntity entity = new PostEntity(id, "t", "txt", 7);
+        PostEntity entity = new PostEntity(id, "t", "txt", 7, 3, List.of("tag1", "tag2"));
 
         when(postRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(commentRepository.countByPostId(id)).thenReturn(3);
-        when(tagRepository.findTagsByPostId(id)).thenReturn(List.of("tag1", "tag2"));
 
         Post post = postService.getPost(id);
 
@@ -46,11 +63,33 @@ public class PostServiceTest extends AbstractServiceTest {
         assertEquals(List.of("tag1", "tag2"), post.tags());
 
         verify(postRepository).findById(id);
-        verify(commentRepository).countByPostId(id);
-        verify(tagRepository).findTagsByPostId(id);
         verifyNoInteractions(postImageStorage);
     }
 
+    @Test
+    void getPost_secondReadServedFromCache_untilLikeInvalidatesIt() {
+        PostEntity entity = new PostEntity(1L, "t", "txt", 7, 0, List.of());
+        when(postRepository.findById(1L)).thenReturn(Optional.of(entity));
+
+        Post first = postService.getPost(1L);
+        assertSame(first, postService.getPost(1L));
+        verify(postRepository, times(1)).findById(1L);
+
+        postService.incrementLikes(1L);
+        postService.getPost(1L);
+        verify(postRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getPost_notFound_isNotCached() {
+        when(postRepository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(PostNotFoundException.class, () -> postService.getPost(42L));
+        assertThrows(PostNotFoundException.class, () -> postService.getPost(42L));
+
+        verify(postRepository, times(2)).findById(42L);
+    }
+
     @Test
     void getPost_notFound() {
         when(postRepository.findById(42L)).thenReturn(Optional.empty());
@@ -70,10 +109,8 @@ public class PostServiceTest extends AbstractServiceTest {
 
         when(postRepository.insert("title", "text")).thenReturn(newId);
 
-        PostEntity entity = new PostEntity(newId, "title", "text", 0);
+        PostEntity entity = new PostEntity(newId, "title", "text", 0, 0, List.of("a", "b"));
         when(postRepository.findById(newId)).thenReturn(Optional.of(entity));
-        when(commentRepository.countByPostId(newId)).thenReturn(0);
-        when(tagRepository.findTagsByPostId(newId)).thenReturn(List.of("a", "b"));
 
         Post created = postService.create("title", "text", List.of("a", "b"));
 
@@ -95,12 +132,10 @@ public class PostServiceTest extends AbstractServiceTest {
     void update() {
         long id = 5L;
 
-        PostEntity entity = new PostEntity(id, "new", "newText", 2);
+        PostEntity entity = new PostEntity(id, "new", "newText", 2, 1, List.of("x"));
 
         doNothing().when(postRepository).update(id, "new", "newText");
         when(postRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(commentRepository.countByPostId(id)).thenReturn(1);
-        when(tagRepository.findTagsByPostId(id)).thenReturn(List.of("x"));
 
         Post updated = postService.update(id, "new", "newText", List.of("x"));
 
@@ -116,33 +151,39 @@ public class PostServiceTest extends AbstractServiceTest {
         verifyNoInteractions(postImageStorage);
     }
 
+    @Test
+    void update_invalidatesCachedPost() {
+        when(postRepository.findById(5L))
+            .thenReturn(Optional.of(new PostEntity(5L, "old", "oldText", 0, 0, List.of())))
+            .thenReturn(Optional.of(new PostEntity(5L, "new", "newText", 0, 0, List.of())));
+
+        assertEquals("old", postService.getPost(5L).title());
+        postService.update(5L, "new", "newText", List.of());
+
+        assertEquals("new", postService.getPost(5L).title());
+    }
+
     // ========================= delete =========================
 
     @Test
     void delete() {
         postService.delete(99L);
 
+        verify(tagRepository).replaceTags(99L, List.of());
         verify(postRepository).deleteById(99L);
         verify(postImageStorage).delete(99L);
-        verifyNoInteractions(commentRepository, tagRepository);
+        verifyNoInteractions(commentRepository);
     }
 
     // ========================= search =========================
 
     @Test
     void search() {
-        when(postRepository.countBySearch("hello", List.of("t"))).thenReturn(6);
-
-        PostEntity e1 = new PostEntity(101L, "h1", "body1", 1);
-        PostEntity e2 = new PostEntity(100L, "h2", "body2", 0);
+        PostPreviewEntity e1 = new PostPreviewEntity(101L, "h1", "body1", 1, 2, List.of("t"));
+        PostPreviewEntity e2 = new PostPreviewEntity(100L, "h2", "body2", 0, 0, List.of("t", "u"));
 
-        when(postRepository.searchPage("hello", List.of("t"), 5, 5)).thenReturn(List.of(e1, e2));
-
-        when(commentRepository.countByPostIds(List.of(101L, 100L))).thenReturn(Map.of(101L, 2));
-        when(tagRepository.findTagsByPostIds(List.of(101L, 100L))).thenReturn(Map.of(
-            101L, List.of("t"),
-            100L, List.of("t", "u")
-        ));
+        when(postRepository.searchPageWithTotal("hello", List.of("t"), PostSort.NEWEST, 5, 5))
+            .thenReturn(new PostSearchPage(List.of(e1, e2), 6, 5));
 
         PostPage page = postService.search("hello #t", 2, 5);
 
@@ -151,31 +192,30 @@ public class PostServiceTest extends AbstractServiceTest {
         assertEquals(2, page.lastPage());
         assertTrue(page.hasPrev());
         assertFalse(page.hasNext());
+        assertFalse(page.approximateTotal());
 
         assertEquals(2, page.posts().size());
 
-        Post p1 = page.posts().get(0);
+        PostPreview p1 = page.posts().get(0);
         assertEquals(101L, p1.id());
+        assertEquals("body1", p1.preview());
         assertEquals(2, p1.commentsCount());
         assertEquals(List.of("t"), p1.tags());
 
-        Post p2 = page.posts().get(1);
+        PostPreview p2 = page.posts().get(1);
         assertEquals(100L, p2.id());
         assertEquals(0, p2.commentsCount());
         assertEquals(List.of("t", "u"), p2.tags());
 
-        verify(postRepository).countBySearch("hello", List.of("t"));
-        verify(postRepository).searchPage("hello", List.of("t"), 5, 5);
-        verify(commentRepository).countByPostIds(List.of(101L, 100L));
-        verify(tagRepository).findTagsByPostIds(List.of(101L, 100L));
+        verify(postRepository).searchPageWithTotal("hello", List.of("t"), PostSort.NEWEST, 5, 5);
+        verifyNoMoreInteractions(postRepository);
         verifyNoInteractions(postImageStorage);
     }
 
     @Test
     void search_pageNumberGreaterThanLastPage() {
-        when(postRepository.countBySearch("", List.of())).thenReturn(0); // lastPage=1
-
-        when(postRepository.searchPage("", List.of(), 0, 10)).thenReturn(List.of());
+        when(postRepository.searchPageWithTotal("", List.of(), PostSort.NEWEST, 9980, 10))
+            .thenReturn(new PostSearchPage(List.of(), 0, 0)); // lastPage=1
 
         PostPage page = postService.search("", 999, 10);
 
@@ -184,10 +224,136 @@ public class PostServiceTest extends AbstractServiceTest {
         assertFalse(page.hasPrev());
         assertFalse(page.hasNext());
 
-        verify(postRepository).countBySearch("", List.of());
-        verify(postRepository).searchPage("", List.of(), 0, 10);
-        verify(commentRepository).countByPostIds(List.of());
-        verify(tagRepository).findTagsByPostIds(List.of());
+        verify(postRepository).searchPageWithTotal("", List.of(), PostSort.NEWEST, 9980, 10);
+        verifyNoMoreInteractions(postRepository);
+        verifyNoInteractions(commentRepository);
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    void search_totalAlreadyKnown_fetchesPageOnly() {
+        when(postRepository.searchPageWithTotal("", List.of(), PostSort.NEWEST, 0, 10))
+            .thenReturn(new PostSearchPage(List.of(), 25, 0));
+        postService.search("", 1, 10);
+
+        when(postRepository.searchPage("", List.of(), PostSort.NEWEST, 20, 10)).thenReturn(List.of());
+
+        PostPage page = postService.search("", 5, 10);
+
+        assertEquals(3, page.pageNumber());
+        assertEquals(3, page.lastPage());
+        verify(postRepository).searchPage("", List.of(), PostSort.NEWEST, 20, 10);
+        verify(postRepository, never()).countBySearch("", List.of());
+    }
+
+    @Test
+    void search_repeatedQuery_servedFromPageCache_untilLikeInvalidatesIt() {
+        PostPreviewEntity e = new PostPreviewEntity(7L, "h", "b", 0, 0, List.of());
+        when(postRepository.searchPageWithTotal("", List.of(), PostSort.NEWEST, 0, 10))
+            .thenReturn(new PostSearchPage(List.of(e), 1, 0));
+
+        PostPage first = postService.search("", 1, 10);
+        PostPage second = postService.search("", 1, 10);
+
+        assertSame(first, second);
+        verify(postRepository, times(1)).searchPageWithTotal("", List.of(), PostSort.NEWEST, 0, 10);
+
+        postService.incrementLikes(7L);
+        when(postRepository.searchPage("", List.of(), PostSort.NEWEST, 0, 10)).thenReturn(List.of(e));
+        postService.search("", 1, 10);
+
+        verify(postRepository).searchPage("", List.of(), PostSort.NEWEST, 0, 10);
+    }
+
+    @Test
+    void search_fullText_usesParsedTerms() {
+        when(postRepository.searchFullText(List.of("spring", "boot"), List.of("java"), PostSort.RANK, 0, 10))
+            .thenReturn(new PostSearchPage(List.of(), 0, 0));
+
+        PostPage page = postService.search("Spring boot #java", SearchMode.FULL_TEXT, PostSort.RANK, 1, 10);
+
+        assertEquals(1, page.lastPage());
+        verify(postRepository).searchFullText(List.of("spring", "boot"), List.of("java"), PostSort.RANK, 0, 10);
+    }
+
+    @Test
+    void search_likesSortInTitleMode_bypassesIdOrderedPaths() {
+        when(postRepository.searchPageWithTotal("", List.of(), PostSort.LIKES, 0, 10))
+            .thenReturn(new PostSearchPage(List.of(), 0, 0));
+
+        postService.search("", SearchMode.TITLE, PostSort.LIKES, 1, 10);
+
+        verify(postRepository).searchPageWithTotal("", List.of(), PostSort.LIKES, 0, 10);
+    }
+
+    @Test
+    void search_rankSortInTitleMode_throws() {
+        assertThrows(UnsupportedSortException.class,
+            () -> postService.search("hello", SearchMode.TITLE, PostSort.RANK, 1, 10));
+
+        verifyNoInteractions(postRepository);
+    }
+
+    // ========================= searchAfter =========================
+
+    @Test
+    void searchAfter_firstPage_returnsCursorCarryingQuery() {
+        PostPreviewEntity e1 = new PostPreviewEntity(12L, "h1", "body1", 0, 0, List.of());
+        PostPreviewEntity e2 = new PostPreviewEntity(11L, "h2", "body2", 0, 0, List.of());
+        PostPreviewEntity e3 = new PostPreviewEntity(10L, "h3", "body3", 0, 0, List.of());
+
+        when(postRepository.searchAfter("hello", List.of("t"), PostSort.NEWEST, PostSortKey.FIRST, 3)).thenReturn(List.of(
+            new SortedPostEntity(e1, new PostSortKey(12L, 12L)),
+            new SortedPostEntity(e2, new PostSortKey(11L, 11L)),
+            new SortedPostEntity(e3, new PostSortKey(10L, 10L))
+        ));
+
+        PostCursorPage page = postService.searchAfter("hello #t", null, 2);
+
+        assertEquals(List.of(12L, 11L), page.posts().stream().map(PostPreview::id).toList());
+        assertTrue(page.hasNext());
+        assertEquals(new PostCursor(11L, "hello #t"), PostCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void searchAfter_cursor_seeksFromCursorWithItsQuery() {
+        String after = new PostCursor(11L, "#t").encode();
+        PostPreviewEntity e = new PostPreviewEntity(10L, "h3", "body3", 0, 0, List.of());
+
+        when(postRepository.searchAfter("", List.of("t"), PostSort.NEWEST, new PostSortKey(11L, 11L), 3))
+            .thenReturn(List.of(new SortedPostEntity(e, new PostSortKey(10L, 10L))));
+
+        PostCursorPage page = postService.searchAfter("ignored", after, 2);
+
+        assertEquals(1, page.posts().size());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        verify(postRepository).searchAfter("", List.of("t"), PostSort.NEWEST, new PostSortKey(11L, 11L), 3);
+    }
+
+    @Test
+    void searchAfter_likesSort_cursorCarriesSortAndKey() {
+        PostPreviewEntity e1 = new PostPreviewEntity(5L, "h1", "body1", 9, 0, List.of());
+        PostPreviewEntity e2 = new PostPreviewEntity(8L, "h2", "body2", 3, 0, List.of());
+
+        when(postRepository.searchAfter("", List.of(), PostSort.LIKES, PostSortKey.FIRST, 2)).thenReturn(List.of(
+            new SortedPostEntity(e1, new PostSortKey(9L, 5L)),
+            new SortedPostEntity(e2, new PostSortKey(3L, 8L))
+        ));
+
+        PostCursorPage page = postService.searchAfter("", null, PostSort.LIKES, 1);
+
+        PostCursor next = PostCursor.decode(page.nextCursor());
+        assertEquals(new PostCursor(PostSort.LIKES, new PostSortKey(9L, 5L), ""), next);
+
+        postService.searchAfter("", page.nextCursor(), PostSort.NEWEST, 1);
+        verify(postRepository).searchAfter("", List.of(), PostSort.LIKES, new PostSortKey(9L, 5L), 2);
+    }
+
+    @Test
+    void searchAfter_malformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> postService.searchAfter("", "not a cursor", 5));
+        verifyNoInteractions(postRepository);
     }
 
     // ========================= incrementLikes =========================
@@ -202,4 +368,25 @@ public class PostServiceTest extends AbstractServiceTest {
         verify(postRepository).incrementLikes(7L);
         verifyNoInteractions(commentRepository, tagRepository, postImageStorage);
     }
+
+    // ========================= checkSearchIndex =========================
+
+    @Test
+    void checkSearchIndex_withoutInMemoryIndex_throwsNotFound() {
+        assertThrows(SearchIndexDisabledException.class, () -> postService.checkSearchIndex());
+    }
+
+    // ========================= addLikes =========================
+
+    @Test
+    void addLikes_appliesSortedBatch_reportsUnknownIds() {
+        when(postRepository.addLikes(LongList.of(3L, 7L, 9L), LongList.of(1L, 5L, 2L)))
+            .thenReturn(List.of(new PostLikesCount(3L, 11), new PostLikesCount(9L, 4)));
+
+        LikesBatch batch = postService.addLikes(Map.of(9L, 2, 3L, 1, 7L, 5));
+
+        assertEquals(Map.of(3L, 11, 9L, 4), batch.likesCounts());
+        assertEquals(List.of(7L), batch.unknownPostIds());
+        verify(postRepository, never()).incrementLikes(anyLong());
+    }
 }
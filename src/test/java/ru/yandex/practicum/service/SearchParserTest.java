@@ -3,6 +3,7 @@ package ru.yandex.practicum.service;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.service.SearchParser.SearchQuery;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -72,4 +73,56 @@ public class SearchParserTest {
         assertEquals("a b c", q.titleSubstring());
         assertEquals(List.of(), q.tags());
     }
+
+    @Test
+    void parse_terms_lowercasedDistinctWithoutTags() {
+        SearchQuery q = SearchParser.parse("Spring #java spring Boot");
+
+        assertEquals(List.of("spring", "boot"), q.terms());
+    }
+
+    @Test
+    void parse_matchesRegexSplitReference() {
+        List<String> inputs = List.of(
+            "",
+            " ",
+            "#",
+            "##a #a",
+            "\u00a0nbsp\u00a0 word",
+            "\f\u000Bx\ry\t#Z",
+            "Hello hello HELLO #t #T #t world",
+            "a b c d e f g h i j k l a b c",
+            "#z #y #x #w #v #u #t #s #r #q #z #y"
+        );
+
+        for (String input : inputs) {
+            assertEquals(reference(input), SearchParser.parse(input), input);
+        }
+    }
+
+    @Test
+    void parse_manyTagsAndTerms() {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 300; i > 0; i--) raw.append("#tag").append(i % 150).append(" word").append(i % 100).append(' ');
+
+        assertEquals(reference(raw.toString()), SearchParser.parse(raw.toString()));
+    }
+
+    private static SearchQuery reference(String raw) {
+        List<String> tags = new ArrayList<>();
+        List<String> titleWords = new ArrayList<>();
+        for (String w : raw.split("\\s+")) {
+            if (w.isEmpty()) continue;
+            if (w.startsWith("#")) {
+                if (w.length() > 1) tags.add(w.substring(1));
+            } else {
+                titleWords.add(w);
+            }
+        }
+        return new SearchQuery(
+            String.join(" ", titleWords),
+            tags.stream().map(String::toLowerCase).distinct().sorted().toList(),
+            titleWords.stream().map(String::toLowerCase).distinct().toList()
+        );
+    }
 }
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.service.SearchParser.SearchQuery;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class SearchTotalsTest extends AbstractServiceTest {
+
+    private static final SearchQuery HELLO = new SearchQuery("hello", List.of("t"), List.of("hello"));
+    private static final SearchQuery ALL = new SearchQuery("", List.of(), List.of());
+
+    // ========================= get =========================
+
+    @Test
+    void get_cachesCountPerQuery() {
+        when(postRepository.countBySearch("hello", List.of("t"))).thenReturn(6);
+
+        assertEquals(new SearchTotal(6, false), searchTotals.get(HELLO));
+        assertEquals(new SearchTotal(6, false), searchTotals.get(new SearchQuery("hello", List.of("t"), List.of("hello"))));
+
+        verify(postRepository, times(1)).countBySearch("hello", List.of("t"));
+    }
+
+    @Test
+    void recordWrite_invalidatesCachedCounts() {
+        when(postRepository.countBySearch("hello", List.of("t"))).thenReturn(6, 7);
+
+        searchTotals.get(HELLO);
+        searchTotals.recordWrite(0);
+
+        assertEquals(new SearchTotal(7, false), searchTotals.get(HELLO));
+        verify(postRepository, times(2)).countBySearch("hello", List.of("t"));
+    }
+
+    @Test
+    void get_emptySearch_maintainedIncrementally() {
+        when(postRepository.countBySearch("", List.of())).thenReturn(10);
+
+        assertEquals(new SearchTotal(10, false), searchTotals.get(ALL));
+        searchTotals.recordWrite(1);
+        searchTotals.recordWrite(1);
+        searchTotals.recordWrite(-1);
+
+        assertEquals(new SearchTotal(11, false), searchTotals.get(ALL));
+        verify(postRepository, times(1)).countBySearch("", List.of());
+        verifyNoMoreInteractions(postRepository);
+    }
+
+    @Test
+    void get_approximateMode_usesEstimateAboveThreshold() {
+        SearchTotals approximate = new SearchTotals(postRepository, true, 100, 16);
+        when(postRepository.estimateCountBySearch("hello", List.of("t"))).thenReturn(5_000L);
+        when(postRepository.estimateCountBySearch("rare", List.of())).thenReturn(20L);
+        when(postRepository.countBySearch("rare", List.of())).thenReturn(3);
+
+        assertEquals(new SearchTotal(5_000, true), approximate.get(HELLO));
+        assertEquals(new SearchTotal(3, false), approximate.get(new SearchQuery("rare", List.of(), List.of("rare"))));
+    }
+}
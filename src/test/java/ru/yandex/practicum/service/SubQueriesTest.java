@@ -0,0 +1,131 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SubQueriesTest {
+
+    // ========================= both =========================
+
+    @Test
+    void both_concurrent_runsSuppliersInParallel() {
+        SubQueries subQueries = new SubQueries(true);
+        CountDownLatch started = new CountDownLatch(2);
+
+        String result = subQueries.both(
+            () -> awaitPeer(started, "a"),
+            () -> awaitPeer(started, "b"),
+            (a, b) -> a + b
+        );
+
+        assertEquals("ab", result);
+    }
+
+    @Test
+    void both_concurrent_failurePropagatesAndCancelsSibling() {
+        SubQueries subQueries = new SubQueries(true);
+        IllegalArgumentException failure = new IllegalArgumentException("boom");
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> subQueries.both(
+            () -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            },
+            () -> { throw failure; },
+            Integer::sum
+        ));
+
+        assertSame(failure, thrown);
+        assertTrue(await(interrupted));
+    }
+
+    @Test
+    void both_concurrent_failureDoesNotWaitForUninterruptibleSibling() {
+        SubQueries subQueries = new SubQueries(true);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean siblingFinished = new AtomicBoolean();
+
+        try {
+            assertThrows(IllegalArgumentException.class, () -> subQueries.both(
+                () -> {
+                    while (!await(release)) Thread.onSpinWait();
+                    siblingFinished.set(true);
+                    return 1;
+                },
+                () -> { throw new IllegalArgumentException("boom"); },
+                Integer::sum
+            ));
+            assertFalse(siblingFinished.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void both_sequentialMode_runsOnCallerThread() {
+        SubQueries subQueries = new SubQueries(false);
+        Thread caller = Thread.currentThread();
+
+        assertEquals(2, subQueries.both(
+            () -> Thread.currentThread() == caller ? 1 : 0,
+            () -> Thread.currentThread() == caller ? 1 : 0,
+            Integer::sum
+        ));
+    }
+
+    @Test
+    void both_insideTransaction_staysOnCallerThread() {
+        SubQueries subQueries = new SubQueries(true);
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> outside = new AtomicReference<>();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(2, subQueries.both(
+                () -> Thread.currentThread() == caller ? 1 : 0,
+                () -> Thread.currentThread() == caller ? 1 : 0,
+                Integer::sum
+            ));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        subQueries.both(() -> { outside.set(Thread.currentThread()); return 0; }, () -> 0, Integer::sum);
+        assertNotSame(caller, outside.get());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+        private static String awaitPeer(CountDownLatch started, String value) {
+        started.countDown();
+        try {
+            if (!started.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("sub-queries ran sequentially");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.yandex.practicum.domain.TagSuggestion;
+import ru.yandex.practicum.repository.tags.TagSuggestions;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TagServiceTest extends AbstractServiceTest {
+
+    @Autowired private TagService tagService;
+    @Autowired private TagSuggestions tagSuggestions;
+
+    @BeforeEach
+    void resetSuggestions() {
+        reset(tagSuggestions);
+    }
+
+    // ========================= suggest =========================
+
+    @Test
+    void suggest_normalizesPrefix() {
+        List<TagSuggestion> expected = List.of(new TagSuggestion("java", 2));
+        when(tagSuggestions.suggest("ja", 5)).thenReturn(expected);
+
+        assertEquals(expected, tagService.suggest("  #Ja ", 5));
+    }
+
+    // ========================= repairTagNames =========================
+
+    @Test
+    void repairTagNames_delegatesToRepository() {
+        when(tagRepository.repairTagNames()).thenReturn(3);
+
+        assertEquals(3, tagService.repairTagNames());
+        verify(tagRepository).repairTagNames();
+    }
+}